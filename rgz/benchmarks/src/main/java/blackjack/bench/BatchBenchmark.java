@@ -0,0 +1,150 @@
+package blackjack.bench;
+
+import blackjack.BatchEvaluator;
+import blackjack.Cards;
+import blackjack.Hands;
+import blackjack.RoundEngine;
+import blackjack.RuleSet;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// Подсчет очков и расчет исхода для HANDS пар рук (игрок и дилер): исходный
+// calculateScore по списку Card, Hands по одной руке и пакетная оценка —
+// скалярная и векторная. Результат — в руках в секунду.
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"--add-modules", "jdk.incubator.vector"})
+@State(Scope.Thread)
+public class BatchBenchmark {
+    static final int HANDS = 4096;
+    private static final int SLOTS = 6;
+
+    private final RuleSet rules = RuleSet.classic();
+    private final BatchEvaluator scalar = BatchEvaluator.scalar();
+    private final BatchEvaluator vector = BatchEvaluator.get();
+
+    private final ArrayList<ArrayList<LegacyDeck.Card>> legacyPlayer = new ArrayList<>();
+    private final ArrayList<ArrayList<LegacyDeck.Card>> legacyDealer = new ArrayList<>();
+    private final byte[] playerRanks = new byte[SLOTS * HANDS];
+    private final byte[] dealerRanks = new byte[SLOTS * HANDS];
+    private final int[] playerHands = new int[HANDS];
+    private final int[] dealerHands = new int[HANDS];
+    private final int[] outcomes = new int[HANDS];
+    private final int[] net = new int[HANDS];
+
+    @Setup
+    public void setup() {
+        if (vector == scalar) {
+            throw new IllegalStateException("Модуль jdk.incubator.vector не подключен");
+        }
+        List<LegacyDeck.Card> deck = LegacyDeck.createNewDeck();
+        Random random = new Random(42);
+        for (int hand = 0; hand < HANDS; hand++) {
+            legacyPlayer.add(deal(deck, random, playerRanks, hand));
+            legacyDealer.add(deal(deck, random, dealerRanks, hand));
+        }
+    }
+
+    // От 2 до SLOTS карт, одинаковых для списка Card и столбцов рангов
+    private static ArrayList<LegacyDeck.Card> deal(List<LegacyDeck.Card> deck, Random random,
+                                                   byte[] ranks, int hand) {
+        ArrayList<LegacyDeck.Card> cards = new ArrayList<>();
+        int size = 2 + random.nextInt(SLOTS - 1);
+        for (int slot = 0; slot < SLOTS; slot++) {
+            byte rank = BatchEvaluator.NO_CARD;
+            if (slot < size) {
+                int card = random.nextInt(Cards.DECK_SIZE);
+                rank = (byte) Cards.rank(card);
+                // createNewDeck идет по мастям, внутри масти — по достоинствам
+                cards.add(deck.get(Cards.suit(card) * Cards.RANKS + rank));
+            }
+            ranks[slot * HANDS + hand] = rank;
+        }
+        return cards;
+    }
+
+    // Исход как в determineWinner, выигрыш в десятых ставки
+    @Benchmark
+    @OperationsPerInvocation(HANDS)
+    public long legacyPerHand() {
+        long total = 0;
+        for (int hand = 0; hand < HANDS; hand++) {
+            ArrayList<LegacyDeck.Card> player = legacyPlayer.get(hand);
+            ArrayList<LegacyDeck.Card> dealer = legacyDealer.get(hand);
+            int playerScore = LegacyDeck.calculateScore(player);
+            int dealerScore = LegacyDeck.calculateScore(dealer);
+            boolean playerBlackjack = player.size() == 2 && playerScore == 21;
+            boolean dealerBlackjack = dealer.size() == 2 && dealerScore == 21;
+            if (playerScore > 21) {
+                total -= 10;
+            } else if (dealerScore > 21) {
+                total += 10;
+            } else if (playerBlackjack && !dealerBlackjack) {
+                total += 15;
+            } else if (playerScore > dealerScore) {
+                total += 10;
+            } else if (dealerScore > playerScore) {
+                total -= 10;
+            }
+        }
+        return total;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(HANDS)
+    public long enginePerHand() {
+        long total = 0;
+        for (int hand = 0; hand < HANDS; hand++) {
+            int player = Hands.EMPTY;
+            int dealer = Hands.EMPTY;
+            for (int slot = 0; slot < SLOTS; slot++) {
+                int playerRank = playerRanks[slot * HANDS + hand];
+                int dealerRank = dealerRanks[slot * HANDS + hand];
+                if (playerRank != BatchEvaluator.NO_CARD) {
+                    player = Hands.add(player, Cards.of(playerRank, 0));
+                }
+                if (dealerRank != BatchEvaluator.NO_CARD) {
+                    dealer = Hands.add(dealer, Cards.of(dealerRank, 0));
+                }
+            }
+            int outcome = rules.outcome(player, Hands.isBlackjack(player), dealer);
+            total += RoundEngine.payout(outcome, BatchEvaluator.BET_TENTHS) - BatchEvaluator.BET_TENTHS;
+        }
+        return total;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(HANDS)
+    public int[] batchScalar() {
+        return batch(scalar);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(HANDS)
+    public int[] batchVector() {
+        return batch(vector);
+    }
+
+    private int[] batch(BatchEvaluator evaluator) {
+        evaluator.pack(playerRanks, SLOTS, HANDS, playerHands);
+        evaluator.pack(dealerRanks, SLOTS, HANDS, dealerHands);
+        evaluator.settle(rules, playerHands, dealerHands, HANDS, outcomes, net);
+        return net;
+    }
+}
@@ -0,0 +1,90 @@
+package blackjack.bench;
+
+import blackjack.RoundEngine;
+import blackjack.Shoe;
+import blackjack.ShuffleSource;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// Построение, перемешивание и раздача колоды: исходный код против RoundEngine
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class DeckBenchmark {
+    private LegacyDeck legacy;
+    private List<LegacyDeck.Card> shuffleTarget;
+    private RoundEngine engine;
+    private Shoe singleDeck;
+
+    @Setup
+    public void setup() {
+        legacy = new LegacyDeck();
+        shuffleTarget = new ArrayList<>(LegacyDeck.createNewDeck());
+        engine = new RoundEngine(new Shoe(Shoe.DEFAULT_DECKS, Shoe.DEFAULT_PENETRATION, ShuffleSource.seeded(42)));
+        singleDeck = new Shoe(1, 1.0, ShuffleSource.seeded(42));
+    }
+
+    @Benchmark
+    public Object legacyCreateDeck() {
+        legacy.createDeck();
+        return legacy.deck;
+    }
+
+    @Benchmark
+    public List<LegacyDeck.Card> legacyCreateNewDeck() {
+        return LegacyDeck.createNewDeck();
+    }
+
+    @Benchmark
+    public List<LegacyDeck.Card> legacyShuffleNewRandom() {
+        Collections.shuffle(shuffleTarget, new Random());
+        return shuffleTarget;
+    }
+
+    // Полная колода через remove(0), включая createDeck перед раздачей
+    @Benchmark
+    public void legacyDrawFullDeck(Blackhole bh) {
+        legacy.createDeck();
+        for (int i = 0; i < 52; i++) {
+            bh.consume(legacy.drawCard());
+        }
+    }
+
+    @Benchmark
+    public int shoeShuffleSingleDeck() {
+        singleDeck.shuffle();
+        return singleDeck.draw();
+    }
+
+    @Benchmark
+    public int engineStartRound() {
+        engine.startRound();
+        return engine.drawCard();
+    }
+
+    @Benchmark
+    public void engineDrawFullDeck(Blackhole bh) {
+        engine.startRound();
+        for (int i = 0; i < 52; i++) {
+            bh.consume(engine.drawCard());
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package blackjack.bench;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+// Копия исходной логики колоды из BlackjackGame до выделения RoundEngine:
+// объекты Card со строками, ArrayList, remove(0) и новый Random на каждое перемешивание.
+// Метки JLabel и иконки опущены — в headless-режиме их не создать, а нужна базовая линия для правил.
+final class LegacyDeck {
+    static final class Card {
+        final String suit;
+        final String value;
+        final int points;
+        final String imageName;
+
+        Card(String suit, String value, int points) {
+            this.suit = suit;
+            this.value = value;
+            this.points = points;
+            this.imageName = value + suit + ".png";
+        }
+    }
+
+    private static final String[] SUITS = {"H", "D", "C", "S"};
+    private static final String[] VALUES = {"2", "3", "4", "5", "6", "7", "8", "9", "10", "J", "Q", "K", "A"};
+    private static final int[] POINTS = {2, 3, 4, 5, 6, 7, 8, 9, 10, 10, 10, 10, 11};
+
+    final ArrayList<Card> deck = new ArrayList<>();
+
+    void createDeck() {
+        deck.clear();
+        for (String suit : SUITS) {
+            for (int i = 0; i < VALUES.length; i++) {
+                deck.add(new Card(suit, VALUES[i], POINTS[i]));
+            }
+        }
+        Collections.shuffle(deck, new Random());
+    }
+
+    static List<Card> createNewDeck() {
+        List<Card> newDeck = new ArrayList<>();
+        for (String suit : SUITS) {
+            for (int i = 0; i < VALUES.length; i++) {
+                newDeck.add(new Card(suit, VALUES[i], POINTS[i]));
+            }
+        }
+        return newDeck;
+    }
+
+    void resetDeck() {
+        deck.clear();
+        deck.addAll(createNewDeck());
+        Collections.shuffle(deck, new Random());
+    }
+
+    Card drawCard() {
+        if (deck.isEmpty()) {
+            resetDeck();
+        }
+        return deck.remove(0);
+    }
+
+    static int calculateScore(ArrayList<Card> hand) {
+        int score = 0;
+        int aces = 0;
+
+        for (Card card : hand) {
+            if (card.value.equals("A")) {
+                aces++;
+                score += 11;
+            } else {
+                score += card.points;
+            }
+        }
+
+        while (score > 21 && aces > 0) {
+            score -= 10;
+            aces--;
+        }
+
+        return score;
+    }
+
+    // Раунд целиком: игрок и дилер берут карты до 17, выплаты как в determineWinner
+    int playRound(int bet) {
+        createDeck();
+        ArrayList<Card> playerHand = new ArrayList<>();
+        ArrayList<Card> dealerHand = new ArrayList<>();
+        playerHand.add(drawCard());
+        dealerHand.add(drawCard());
+        playerHand.add(drawCard());
+        dealerHand.add(drawCard());
+        while (calculateScore(playerHand) < 17) {
+            playerHand.add(drawCard());
+        }
+        int playerScore = calculateScore(playerHand);
+        if (playerScore > 21) {
+            return 0;
+        }
+        while (calculateScore(dealerHand) < 17) {
+            dealerHand.add(drawCard());
+        }
+        int dealerScore = calculateScore(dealerHand);
+        if (dealerScore > 21) {
+            return bet * 2;
+        } else if (playerScore == 21 && playerHand.size() == 2 && !(dealerScore == 21 && dealerHand.size() == 2)) {
+            return (int) (bet * 2.5);
+        } else if (playerScore > dealerScore) {
+            return bet * 2;
+        } else if (dealerScore > playerScore) {
+            return 0;
+        }
+        return bet;
+    }
+}
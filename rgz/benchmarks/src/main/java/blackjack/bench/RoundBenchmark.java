@@ -0,0 +1,50 @@
+package blackjack.bench;
+
+import blackjack.RoundEngine;
+import blackjack.Shoe;
+import blackjack.ShuffleSource;
+import blackjack.Strategy;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+// Раунд от раздачи до выплаты, игрок стоит на 17
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class RoundBenchmark {
+    private static final int BET = 100;
+
+    private LegacyDeck legacy;
+    private RoundEngine engine;
+    private Strategy strategy;
+
+    @Setup
+    public void setup() {
+        legacy = new LegacyDeck();
+        engine = new RoundEngine(new Shoe(Shoe.DEFAULT_DECKS, Shoe.DEFAULT_PENETRATION, ShuffleSource.seeded(42)));
+        strategy = Strategy.standOn(17);
+    }
+
+    @Benchmark
+    public int legacyRound() {
+        return legacy.playRound(BET);
+    }
+
+    @Benchmark
+    public int engineRound() {
+        return RoundEngine.payout(engine.playRound(strategy), BET);
+    }
+}
@@ -0,0 +1,60 @@
+package blackjack.bench;
+
+import blackjack.Hands;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ScoreBenchmark {
+    @Param({"2", "3", "5"})
+    int handSize;
+
+    private ArrayList<LegacyDeck.Card> legacyHand;
+    private int[] cards;
+
+    @Setup
+    public void setup() {
+        LegacyDeck legacy = new LegacyDeck();
+        legacy.createDeck();
+        legacyHand = new ArrayList<>();
+        cards = new int[handSize];
+        Random random = new Random(42);
+        for (int i = 0; i < handSize; i++) {
+            legacyHand.add(legacy.drawCard());
+            cards[i] = random.nextInt(52);
+        }
+    }
+
+    @Benchmark
+    public int legacyCalculateScore() {
+        return LegacyDeck.calculateScore(legacyHand);
+    }
+
+    // Собираем руку заново, чтобы честно сравнивать с обходом списка
+    @Benchmark
+    public int engineScore() {
+        int hand = Hands.EMPTY;
+        for (int card : cards) {
+            hand = Hands.add(hand, card);
+        }
+        return Hands.score(hand);
+    }
+}
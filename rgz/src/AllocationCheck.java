@@ -0,0 +1,134 @@
+import blackjack.RoundEngine;
+import blackjack.RuleSet;
+import blackjack.Shoe;
+import blackjack.ShuffleSource;
+import blackjack.Strategies;
+import blackjack.Strategy;
+import blackjack.history.HandHistoryWriter;
+import blackjack.history.HandRecord;
+import blackjack.history.RoundRecorder;
+
+import javax.swing.SwingUtilities;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.InvocationTargetException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+// Проверка, что установившийся раунд не выделяет память. После разогрева считаются
+// байты, выделенные потоком (com.sun.management.ThreadMXBean), на трех путях:
+// движок, движок с записью истории и стол в автоигре на EDT. Любой объект — это
+// не меньше 16 байт, поэтому порог в байт на раунд ловит даже одно выделение.
+final class AllocationCheck {
+    // Движок и история: ни одного объекта на раунд
+    static final double ROUND_BUDGET = 1.0;
+    // Стол: одно событие EDT на порцию шагов автоигры и сброс меток несколько раз в секунду
+    static final double TABLE_BUDGET = 16.0;
+    // Удвоение и сдача, чтобы стол проходил и эти ветки
+    private static final String TABLE_RULES = "double=any,surrender";
+    private static final int BET = 10;
+    private static final long SEED = 21;
+    private static final long POLL_MS = 50;
+    // Путь стола длиннее и компилируется дольше движка
+    private static final long TABLE_WARMUP_HANDS = 60_000;
+
+    private static final com.sun.management.ThreadMXBean THREADS =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    private AllocationCheck() {
+    }
+
+    // true — все пути уложились в бюджет; стол играет десятую часть раундов
+    static boolean run(long rounds, PrintStream out)
+            throws IOException, InterruptedException, InvocationTargetException {
+        Strategy strategy = Strategies.basic();
+        boolean passed = report(out, "Движок", engineBytesPerRound(strategy, rounds), ROUND_BUDGET);
+        passed &= report(out, "Движок и история", historyBytesPerRound(strategy, rounds), ROUND_BUDGET);
+        passed &= report(out, "Стол, автоигра", tableBytesPerHand(strategy, Math.max(1, rounds / 10)), TABLE_BUDGET);
+        return passed;
+    }
+
+    private static boolean report(PrintStream out, String name, double bytes, double budget) {
+        boolean passed = bytes < budget;
+        out.printf("%-18s %10.3f байт на раунд (порог %.0f)%s%n", name, bytes, budget, passed ? "" : " — ПРЕВЫШЕН");
+        return passed;
+    }
+
+    private static RoundEngine newEngine(RuleSet rules) {
+        return new RoundEngine(new Shoe(Shoe.DEFAULT_DECKS, Shoe.DEFAULT_PENETRATION, ShuffleSource.seeded(SEED)), rules);
+    }
+
+    private static double engineBytesPerRound(Strategy strategy, long rounds) {
+        RoundEngine engine = newEngine(RuleSet.classic());
+        playRounds(engine, strategy, rounds);
+        long before = THREADS.getCurrentThreadAllocatedBytes();
+        playRounds(engine, strategy, rounds);
+        return (double) (THREADS.getCurrentThreadAllocatedBytes() - before) / rounds;
+    }
+
+    private static void playRounds(RoundEngine engine, Strategy strategy, long rounds) {
+        for (long i = 0; i < rounds; i++) {
+            engine.startRound();
+            engine.playHand(strategy);
+            engine.settle(BET);
+        }
+    }
+
+    // Тот же путь, что у записи корпуса: раунд в HandRecord и запись в отображенный файл
+    private static double historyBytesPerRound(Strategy strategy, long rounds) throws IOException {
+        RuleSet rules = RuleSet.parse(TABLE_RULES);
+        RoundEngine engine = newEngine(rules);
+        HandRecord record = new HandRecord();
+        Path file = Files.createTempFile("alloccheck", ".bjh");
+        try (HandHistoryWriter writer = new HandHistoryWriter(file, Shoe.DEFAULT_DECKS, rules)) {
+            recordRounds(engine, strategy, record, writer, rounds);
+            long before = THREADS.getCurrentThreadAllocatedBytes();
+            recordRounds(engine, strategy, record, writer, rounds);
+            return (double) (THREADS.getCurrentThreadAllocatedBytes() - before) / rounds;
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    private static void recordRounds(RoundEngine engine, Strategy strategy, HandRecord record,
+                                     HandHistoryWriter writer, long rounds) throws IOException {
+        for (long i = 0; i < rounds; i++) {
+            int payout = RoundRecorder.playRound(engine, strategy, BET, true, record);
+            record.settle(engine.outcome(), payout, RoundRecorder.START_BALANCE);
+            writer.append(record);
+        }
+    }
+
+    // Настоящий стол без окна: автоигра идет через очередь событий, считаются байты потока EDT.
+    // Рисование не входит: его стоимость зависит от числа кадров, а не раздач
+    private static double tableBytesPerHand(Strategy strategy, long hands)
+            throws InterruptedException, InvocationTargetException {
+        TableContext context = TableContext.compact(0.5);
+        BlackjackTable[] table = new BlackjackTable[1];
+        SwingUtilities.invokeAndWait(() -> {
+            table[0] = new BlackjackTable(context, newEngine(RuleSet.parse(TABLE_RULES).withMaxHands(1)), () -> {}, null);
+            table[0].setSize(TableContext.COMPACT_WIDTH, TableContext.COMPACT_HEIGHT);
+            table[0].doLayout();
+            table[0].startAutoPlay(strategy, BET);
+            table[0].sitDown();
+        });
+        long[] start = awaitHands(table[0], Math.max(hands, TABLE_WARMUP_HANDS));
+        long[] end = awaitHands(table[0], start[0] + hands);
+        return (double) (end[1] - start[1]) / (end[0] - start[0]);
+    }
+
+    // Ждет, пока стол сыграет hands раздач; раздачи и байты снимаются на EDT одновременно
+    private static long[] awaitHands(BlackjackTable table, long hands)
+            throws InterruptedException, InvocationTargetException {
+        long[] sample = new long[2];
+        do {
+            Thread.sleep(POLL_MS);
+            SwingUtilities.invokeAndWait(() -> {
+                sample[0] = table.handsPlayed();
+                sample[1] = THREADS.getCurrentThreadAllocatedBytes();
+            });
+        } while (sample[0] < hands);
+        return sample;
+    }
+}
@@ -0,0 +1,140 @@
+import blackjack.metrics.GameMetrics;
+
+import java.awt.Graphics2D;
+import java.awt.color.ColorSpace;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.awt.image.DirectColorModel;
+import java.awt.image.Raster;
+import java.awt.image.WritableRaster;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+// Пакет изображений, собранный при сборке (AssetPacker): уже отмасштабированные
+// пиксели ARGB (с предумножением альфы) для всех карт, рубашки и фона. Файл
+// отображается в память, изображения создаются копированием пикселей без декодирования PNG.
+//
+// Формат (big-endian): "BJAP", версия, число записей, затем записи
+// (id, ширина, высота, смещение пикселей в байтах), затем пиксели по строкам.
+final class AssetPack {
+    static final String RESOURCE = "/cards/cards.pack";
+    static final int BACKGROUND = CardAtlas.BACK + 1;
+    static final int IMAGES = BACKGROUND + 1;
+
+    private static final int MAGIC = 0x424A4150; // "BJAP"
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 12;
+    private static final int ENTRY_SIZE = 16;
+    private static final DirectColorModel COLOR_MODEL = new DirectColorModel(
+            ColorSpace.getInstance(ColorSpace.CS_sRGB), 32,
+            0x00FF0000, 0x0000FF00, 0x000000FF, 0xFF000000, true, DataBufferInt.TYPE_INT);
+
+    private final ByteBuffer data;
+    private final int[] widths = new int[IMAGES];
+    private final int[] heights = new int[IMAGES];
+    private final int[] offsets = new int[IMAGES];
+
+    // Пакет ищется один раз; если его нет (сборка без Maven), карты декодируются из PNG
+    private static final class Holder {
+        static final AssetPack PACK = open();
+    }
+
+    private AssetPack(ByteBuffer data) throws IOException {
+        this.data = data;
+        if (data.getInt(0) != MAGIC || data.getInt(4) != VERSION || data.getInt(8) != IMAGES) {
+            throw new IOException("Неподдерживаемый формат пакета изображений");
+        }
+        for (int i = 0; i < IMAGES; i++) {
+            int entry = HEADER_SIZE + i * ENTRY_SIZE;
+            int id = data.getInt(entry);
+            widths[id] = data.getInt(entry + 4);
+            heights[id] = data.getInt(entry + 8);
+            offsets[id] = data.getInt(entry + 12);
+        }
+    }
+
+    static AssetPack get() {
+        return Holder.PACK;
+    }
+
+    private static AssetPack open() {
+        URL url = AssetPack.class.getResource(RESOURCE);
+        if (url == null) {
+            return null;
+        }
+        try {
+            if ("file".equals(url.getProtocol())) {
+                try (FileChannel channel = FileChannel.open(Path.of(url.toURI()), StandardOpenOption.READ)) {
+                    return new AssetPack(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+                }
+            }
+            // Внутри jar отобразить ресурс нельзя — читаем его целиком одним блоком
+            try (InputStream in = url.openStream()) {
+                return new AssetPack(ByteBuffer.wrap(in.readAllBytes()));
+            }
+        } catch (IOException | URISyntaxException e) {
+            System.err.println("Не удалось открыть пакет изображений: " + e.getMessage());
+            return null;
+        }
+    }
+
+    int width(int id) {
+        return widths[id];
+    }
+
+    int height(int id) {
+        return heights[id];
+    }
+
+    BufferedImage image(int id) {
+        long start = System.nanoTime();
+        int width = widths[id];
+        int height = heights[id];
+        int[] pixels = new int[width * height];
+        data.slice(offsets[id], pixels.length * 4).asIntBuffer().get(pixels);
+        WritableRaster raster = Raster.createPackedRaster(new DataBufferInt(pixels, pixels.length), width, height,
+                width, COLOR_MODEL.getMasks(), null);
+        BufferedImage image = new BufferedImage(COLOR_MODEL, raster, true, null);
+        GameMetrics.get().recordImageLoad(System.nanoTime() - start);
+        return image;
+    }
+
+    // images[id] — изображения всех IMAGES записей, переводятся в ARGB с предумножением
+    static void write(Path file, BufferedImage[] images) throws IOException {
+        int offset = HEADER_SIZE + IMAGES * ENTRY_SIZE;
+        ByteBuffer header = ByteBuffer.allocate(offset);
+        header.putInt(MAGIC).putInt(VERSION).putInt(IMAGES);
+        for (int id = 0; id < IMAGES; id++) {
+            BufferedImage image = images[id];
+            header.putInt(id).putInt(image.getWidth()).putInt(image.getHeight()).putInt(offset);
+            offset += image.getWidth() * image.getHeight() * 4;
+        }
+        header.flip();
+        Files.createDirectories(file.toAbsolutePath().getParent());
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            channel.write(header);
+            for (BufferedImage image : images) {
+                int[] pixels = premultiplied(image);
+                ByteBuffer buffer = ByteBuffer.allocate(pixels.length * 4);
+                buffer.asIntBuffer().put(pixels);
+                channel.write(buffer);
+            }
+        }
+    }
+
+    private static int[] premultiplied(BufferedImage image) {
+        BufferedImage converted = new BufferedImage(image.getWidth(), image.getHeight(), BufferedImage.TYPE_INT_ARGB_PRE);
+        Graphics2D g = converted.createGraphics();
+        g.drawImage(image, 0, 0, null);
+        g.dispose();
+        return ((DataBufferInt) converted.getRaster().getDataBuffer()).getData();
+    }
+}
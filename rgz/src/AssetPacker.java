@@ -0,0 +1,41 @@
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+
+import blackjack.Cards;
+
+// Шаг сборки (фаза process-classes в pom.xml): декодирует PNG карт и фона, масштабирует
+// карты под стандартный размер и сохраняет все в AssetPack, чтобы при запуске ничего не декодировать.
+public final class AssetPacker {
+    static final String BACKGROUND_PATH = "/cards/background.png";
+
+    private AssetPacker() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        Path output = Path.of(args.length > 0 ? args[0] : "target/classes" + AssetPack.RESOURCE);
+        long start = System.nanoTime();
+        BufferedImage[] images = new BufferedImage[AssetPack.IMAGES];
+        for (int code = 0; code < Cards.DECK_SIZE; code++) {
+            images[code] = CardAtlas.scale(decode(Cards.imagePath(code)), CardAtlas.CARD_WIDTH, CardAtlas.CARD_HEIGHT);
+        }
+        images[CardAtlas.BACK] = CardAtlas.scale(decode(CardAtlas.BACK_PATH), CardAtlas.CARD_WIDTH, CardAtlas.CARD_HEIGHT);
+        // Фон меньше окна, он хранится как есть и масштабируется панелью под ее размер
+        images[AssetPack.BACKGROUND] = decode(BACKGROUND_PATH);
+        AssetPack.write(output, images);
+        System.out.printf("Пакет изображений: %s, %d изображений за %.0f мс%n",
+                output, images.length, (System.nanoTime() - start) / 1e6);
+    }
+
+    private static BufferedImage decode(String path) throws IOException {
+        try (InputStream in = AssetPacker.class.getResourceAsStream(path)) {
+            BufferedImage image = in == null ? null : ImageIO.read(in);
+            if (image == null) {
+                throw new IOException("Не удалось загрузить изображение: " + path);
+            }
+            return image;
+        }
+    }
+}
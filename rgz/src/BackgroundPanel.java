@@ -1,23 +1,56 @@
 import javax.swing.*;
 import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.util.concurrent.ConcurrentHashMap;
 
+// Исходный фон загружается один раз на путь и общий для всех столов окна;
+// отмасштабированная копия у каждой панели своя, под ее размер
 class BackgroundPanel extends JPanel {
-    private Image backgroundImage;
+    private static final ConcurrentHashMap<String, Image> SOURCES = new ConcurrentHashMap<>();
+
+    private final Image backgroundImage;
+    // Фон, уже отмасштабированный под текущий размер панели: пересчитывается только при изменении размера
+    private BufferedImage scaledImage;
 
     public BackgroundPanel(String imagePath) {
+        backgroundImage = SOURCES.computeIfAbsent(imagePath, BackgroundPanel::load);
+    }
+
+    // null не попадает в кэш: при ошибке следующая панель попробует снова
+    private static Image load(String imagePath) {
+        AssetPack pack = AssetPack.get();
+        if (pack != null && AssetPacker.BACKGROUND_PATH.equals(imagePath)) {
+            return pack.image(AssetPack.BACKGROUND);
+        }
         try {
-            backgroundImage = new ImageIcon(getClass().getResource(imagePath)).getImage();
+            return new ImageIcon(BackgroundPanel.class.getResource(imagePath)).getImage();
         } catch (Exception e) {
             System.err.println("Не удалось загрузить фоновое изображение: " + e.getMessage());
-            backgroundImage = null;
+            return null;
         }
     }
 
     @Override
     protected void paintComponent(Graphics g) {
         super.paintComponent(g);
-        if (backgroundImage != null) {
-            g.drawImage(backgroundImage, 0, 0, getWidth(), getHeight(), this);
+        if (backgroundImage == null || getWidth() <= 0 || getHeight() <= 0) {
+            return;
         }
+        if (scaledImage == null || scaledImage.getWidth() != getWidth() || scaledImage.getHeight() != getHeight()) {
+            scaledImage = scaleToPanel();
+        }
+        g.drawImage(scaledImage, 0, 0, null);
+    }
+
+    private BufferedImage scaleToPanel() {
+        GraphicsConfiguration config = getGraphicsConfiguration();
+        BufferedImage image = config != null
+                ? config.createCompatibleImage(getWidth(), getHeight())
+                : new BufferedImage(getWidth(), getHeight(), BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = image.createGraphics();
+        g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+        g.drawImage(backgroundImage, 0, 0, getWidth(), getHeight(), null);
+        g.dispose();
+        return image;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,102 @@
+import blackjack.BatchEvaluator;
+import blackjack.Cards;
+import blackjack.Hands;
+import blackjack.RuleSet;
+
+import java.io.PrintStream;
+import java.util.SplittableRandom;
+
+// Сверка векторной и скалярной пакетной оценки с движком. Для каждого размера пакета
+// от 1 до maxCount (с хвостом меньше вектора и без него) руки собираются через
+// Hands.add, исход и выигрыш считаются через RuleSet.outcome и payout; обе реализации
+// pack и settle должны дать то же самое. Так порядок масок в settle не разойдется
+// с порядком проверок в RuleSet незаметно.
+final class BatchParityCheck {
+    // Выплата блэкджека 3:2 и 6:5
+    static final String[] RULES = {"classic", "h17,bj=6:5"};
+    private static final int SLOTS = 6;
+    private static final long SEED = 42;
+    // Дальше расхождения только считаются
+    private static final int MAX_REPORTED = 10;
+
+    private BatchParityCheck() {
+    }
+
+    // true — расхождений нет; без модуля jdk.incubator.vector сверять не с чем
+    static boolean run(int maxCount, PrintStream out) {
+        BatchEvaluator vector = BatchEvaluator.get();
+        BatchEvaluator scalar = BatchEvaluator.scalar();
+        if (vector == scalar) {
+            out.println("Векторная оценка недоступна: нужен --add-modules jdk.incubator.vector");
+            return false;
+        }
+        boolean passed = true;
+        for (String name : RULES) {
+            passed &= check(RuleSet.parse(name), vector, scalar, maxCount, out);
+        }
+        return passed;
+    }
+
+    private static boolean check(RuleSet rules, BatchEvaluator vector, BatchEvaluator scalar,
+                                 int maxCount, PrintStream out) {
+        byte[] playerRanks = new byte[SLOTS * maxCount];
+        byte[] dealerRanks = new byte[SLOTS * maxCount];
+        int[] playerHands = new int[maxCount];
+        int[] dealerHands = new int[maxCount];
+        int[] packed = new int[maxCount];
+        int[] outcomes = new int[maxCount];
+        int[] net = new int[maxCount];
+        BatchEvaluator[] evaluators = {vector, scalar};
+        long hands = 0;
+        long mismatches = 0;
+        for (int count = 1; count <= maxCount; count++) {
+            SplittableRandom random = new SplittableRandom(SEED + count);
+            for (int hand = 0; hand < count; hand++) {
+                playerHands[hand] = deal(random, playerRanks, count, hand);
+                dealerHands[hand] = deal(random, dealerRanks, count, hand);
+            }
+            for (BatchEvaluator evaluator : evaluators) {
+                evaluator.pack(playerRanks, SLOTS, count, packed);
+                for (int hand = 0; hand < count; hand++) {
+                    if (packed[hand] != playerHands[hand] && mismatches++ < MAX_REPORTED) {
+                        report(out, evaluator, "pack", count, hand, playerHands[hand], packed[hand]);
+                    }
+                }
+                evaluator.settle(rules, playerHands, dealerHands, count, outcomes, net);
+                for (int hand = 0; hand < count; hand++) {
+                    int player = playerHands[hand];
+                    int outcome = rules.outcome(player, Hands.isBlackjack(player), dealerHands[hand]);
+                    int expectedNet = rules.payout(outcome, BatchEvaluator.BET_TENTHS) - BatchEvaluator.BET_TENTHS;
+                    if ((outcomes[hand] != outcome || net[hand] != expectedNet) && mismatches++ < MAX_REPORTED) {
+                        report(out, evaluator, "settle", count, hand, outcome, outcomes[hand]);
+                    }
+                }
+            }
+            hands += count;
+        }
+        out.printf("Правила %-32s %,12d рук, %s: %s%n", rules, hands, vector.name(),
+                mismatches == 0 ? "совпадает" : "РАСХОЖДЕНИЙ " + mismatches);
+        return mismatches == 0;
+    }
+
+    // Половина рук — две карты, чтобы блэкджеки встречались часто
+    private static int deal(SplittableRandom random, byte[] ranks, int count, int hand) {
+        int size = random.nextBoolean() ? 2 : 1 + random.nextInt(SLOTS);
+        int packed = Hands.EMPTY;
+        for (int slot = 0; slot < SLOTS; slot++) {
+            byte rank = BatchEvaluator.NO_CARD;
+            if (slot < size) {
+                rank = (byte) random.nextInt(Cards.RANKS);
+                packed = Hands.add(packed, Cards.of(rank, 0));
+            }
+            ranks[slot * count + hand] = rank;
+        }
+        return packed;
+    }
+
+    private static void report(PrintStream out, BatchEvaluator evaluator, String step,
+                               int count, int hand, int expected, int actual) {
+        out.printf("  %s.%s: пакет %d, рука %d — ожидалось %d, получено %d%n",
+                evaluator.name(), step, count, hand, expected, actual);
+    }
+}
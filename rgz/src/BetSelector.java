@@ -0,0 +1,79 @@
+import javax.swing.*;
+import java.awt.*;
+import java.util.function.IntConsumer;
+
+import blackjack.sim.BankrollSimulator;
+
+// Выбор ставки прямо на столе вместо модального окна: фишки из прежнего диалога
+// и поле для другой суммы. Неверная сумма показывается в панели, окно не
+// блокирует очередь событий, поэтому анимации и метрики продолжают работать.
+final class BetSelector extends JPanel {
+    private static final int[] CHIPS = BankrollSimulator.chips();
+
+    private final IntConsumer onBet;
+    private final JButton[] chipButtons = new JButton[CHIPS.length];
+    private final JTextField amountField = new JTextField("100", 5);
+    private final JLabel errorLabel = new JLabel(" ");
+    private int balance;
+
+    BetSelector(IntConsumer onBet) {
+        super(new BorderLayout(4, 4));
+        this.onBet = onBet;
+        setBorder(BorderFactory.createCompoundBorder(
+                BorderFactory.createLineBorder(Color.DARK_GRAY),
+                BorderFactory.createEmptyBorder(8, 8, 8, 8)));
+        add(new JLabel("Выберите ставку:"), BorderLayout.NORTH);
+
+        JPanel chips = new JPanel(new GridLayout(1, CHIPS.length, 4, 0));
+        for (int i = 0; i < CHIPS.length; i++) {
+            int chip = CHIPS[i];
+            chipButtons[i] = new JButton(String.valueOf(chip));
+            chipButtons[i].addActionListener(e -> submit(chip));
+            chips.add(chipButtons[i]);
+        }
+
+        JPanel custom = new JPanel(new FlowLayout(FlowLayout.LEFT, 4, 0));
+        JButton customButton = new JButton("Другая сумма");
+        customButton.addActionListener(e -> submitTyped());
+        amountField.addActionListener(e -> submitTyped());
+        custom.add(amountField);
+        custom.add(customButton);
+
+        JPanel center = new JPanel(new GridLayout(2, 1, 0, 4));
+        center.add(chips);
+        center.add(custom);
+        add(center, BorderLayout.CENTER);
+        errorLabel.setForeground(new Color(160, 0, 0));
+        add(errorLabel, BorderLayout.SOUTH);
+        setSize(getPreferredSize());
+        setVisible(false);
+    }
+
+    // Фишки больше баланса недоступны
+    void open(int balance) {
+        this.balance = balance;
+        for (int i = 0; i < CHIPS.length; i++) {
+            chipButtons[i].setEnabled(CHIPS[i] <= balance);
+        }
+        amountField.setToolTipText("От 1 до " + balance);
+        errorLabel.setText(" ");
+        setVisible(true);
+    }
+
+    private void submitTyped() {
+        try {
+            submit(Integer.parseInt(amountField.getText().trim()));
+        } catch (NumberFormatException e) {
+            errorLabel.setText("Введите корректное число!");
+        }
+    }
+
+    private void submit(int bet) {
+        if (bet <= 0 || bet > balance) {
+            errorLabel.setText("Недопустимая ставка! Введите число от 1 до " + balance);
+            return;
+        }
+        setVisible(false);
+        onBet.accept(bet);
+    }
+}
@@ -0,0 +1,827 @@
+import javax.swing.*;
+import java.awt.*;
+import java.awt.event.ComponentAdapter;
+import java.awt.event.ComponentEvent;
+import java.util.*;
+import java.util.List;
+import java.io.IOException;
+import java.nio.file.Path;
+import blackjack.Cards;
+import blackjack.Hands;
+import blackjack.RoundEngine;
+import blackjack.RuleSet;
+import blackjack.Shoe;
+import blackjack.ShoeState;
+import blackjack.ShuffleSource;
+import blackjack.Strategy;
+import blackjack.history.HandHistoryWriter;
+import blackjack.history.HandRecord;
+import blackjack.history.RoundRecorder;
+import blackjack.metrics.GameMetrics;
+
+// Один стол: движок, руки, баланс, очередь анимаций и кнопки. Атлас карт, кадровый
+// цикл и ограничитель меток приходят из TableContext и общие для всех столов окна.
+final class BlackjackTable extends JPanel {
+    private final TableContext context;
+    private final RoundEngine engine;
+    private ArrayList<CardSprite> playerHand;
+    private ArrayList<CardSprite> dealerHand;
+    private JLabel playerScoreLabel;
+    private JLabel dealerScoreLabel;
+    private JLabel resultLabel;
+    private JLabel balanceLabel;
+    private JButton hitButton;
+    private JButton standButton;
+    private JButton doubleButton;
+    private JButton surrenderButton;
+    private JButton newGameButton;
+    private JToggleButton countButton;
+    private JLabel countLabel;
+    private JPanel gamePanel;
+    private BetSelector betSelector;
+    private OverlayPrompt gameOverPrompt;
+    private RoundState state = RoundState.SEATING;
+    private int playerScore;
+    private int dealerScore;
+    private int balance;
+    private int currentBet;
+    private final RenderLoop renderLoop;
+    private final SpritePool spritePool = new SpritePool();
+    private int cardsToDeal;
+    private boolean dealingInitialCards;
+    private int nextDealIndex;
+    private final AnimationQueue animationQueue = new AnimationQueue();
+    private final LabelThrottle labels;
+    private Strategy autoStrategy;
+    private int autoBet;
+    private long handsPlayed;
+    // Шаги автоигры: одно событие EDT разбирает их порцией, а не по событию на шаг
+    private final ArrayDeque<Runnable> autoSteps = new ArrayDeque<>();
+    private boolean autoStepsPosted;
+    private final HandRecord handRecord = new HandRecord();
+    private HandHistoryWriter history;
+    private final GameMetrics metrics = GameMetrics.get();
+    private long betPromptedAt;
+
+    private static final long CARD_ANIMATION_MS = 15 * RenderLoop.FRAME_MS;
+    private static final long DEAL_DELAY_MS = 500;
+    // Киоск: без выхода из игры и без правил на старте, после проигрыша всех фишек
+    // стол сам начинает заново через KIOSK_RESTART_MS
+    private static final boolean KIOSK = Boolean.getBoolean("blackjack.kiosk");
+    private static final long KIOSK_RESTART_MS = 10_000;
+    // Повтор истории сверяет первую раздачу сессии с этим же балансом
+    private static final int START_BALANCE = RoundRecorder.START_BALANCE;
+    // Порция шагов автоигры, после нее EDT отдается рисованию и вводу
+    private static final long AUTO_SLICE_NANOS = 4_000_000L;
+    // Больше не набрать: взять карту можно еще на 21
+    private static final int MAX_SCORE = 31;
+
+    // Тексты со счетом собираются при первом показе и дальше берутся готовыми
+    private static final String[] PLAYER_SCORE_TEXTS = new String[MAX_SCORE + 1];
+    private static final String[] DEALER_SCORE_TEXTS = new String[MAX_SCORE + 1];
+    private static final String[] WIN_TEXTS = new String[(MAX_SCORE + 1) * (MAX_SCORE + 1)];
+    private static final String[] LOSS_TEXTS = new String[(MAX_SCORE + 1) * (MAX_SCORE + 1)];
+    private static final String[] PUSH_TEXTS = new String[(MAX_SCORE + 1) * (MAX_SCORE + 1)];
+    private static final Runnable NO_ACTION = () -> {};
+
+    // Шаги раунда создаются один раз: раздача после разогрева не выделяет памяти
+    private final Runnable drainAutoSteps = this::drainAutoSteps;
+    private final Runnable autoDecision = this::makeAutoDecision;
+    private final Runnable promptStep = this::promptForBet;
+    private final Runnable dealerStep = this::playDealer;
+    private final Runnable dealNext = () -> dealInitialCards(nextDealIndex);
+    private final Runnable scheduleNextDeal = () -> later(DEAL_DELAY_MS, dealNext);
+    private final Runnable scheduleDealerStep = () -> later(DEAL_DELAY_MS, dealerStep);
+    private final Runnable afterDouble = this::afterDouble;
+    private final Runnable animationDone = this::animationDone;
+
+    // Метка карты на столе, переиспользуется между раундами
+    // Значки карт берутся из общего атласа, сами метки у каждого стола свои
+    private static class CardSprite {
+        final JLabel label;
+        final Point position;
+        final Runnable revealAction = this::reveal;
+        ImageIcon face;
+        ImageIcon cardBack;
+        // Куда и как летит карта, пока она ждет в очереди анимаций
+        boolean toPlayer;
+        boolean hidden;
+        Runnable onDealt;
+
+        CardSprite() {
+            this.position = new Point(0, 0);
+            this.label = new JLabel();
+            this.label.setBorder(BorderFactory.createEmptyBorder());
+            this.label.setVisible(false);
+        }
+
+        void show(ImageIcon face, ImageIcon cardBack) {
+            this.face = face;
+            this.cardBack = cardBack;
+            label.setIcon(cardBack);
+            // Все карты атласа одного размера
+            if (!label.isPreferredSizeSet()) {
+                label.setPreferredSize(new Dimension(face.getIconWidth(), face.getIconHeight()));
+            }
+        }
+
+        public void reveal() {
+            label.setIcon(face);
+        }
+
+        public void setPosition(int x, int y) {
+            position.setLocation(x, y);
+            label.setBounds(x, y, label.getWidth(), label.getHeight());
+        }
+    }
+
+    // Метки не удаляются с панели: в конце раунда они скрываются и возвращаются в пул
+    private static class SpritePool {
+        private final ArrayList<CardSprite> free = new ArrayList<>();
+        private final ArrayList<CardSprite> inUse = new ArrayList<>();
+
+        CardSprite acquire(JPanel panel) {
+            CardSprite sprite;
+            if (free.isEmpty()) {
+                sprite = new CardSprite();
+                panel.add(sprite.label);
+            } else {
+                sprite = free.remove(free.size() - 1);
+            }
+            inUse.add(sprite);
+            return sprite;
+        }
+
+        void releaseAll() {
+            for (int i = 0; i < inUse.size(); i++) {
+                CardSprite sprite = inUse.get(i);
+                sprite.label.setVisible(false);
+                sprite.face = null;
+                sprite.onDealt = null;
+                free.add(sprite);
+            }
+            inUse.clear();
+        }
+    }
+
+    // Карты летят по одной; в очереди лежат сами метки, а не замыкания
+    private final class AnimationQueue {
+        private final ArrayDeque<CardSprite> cards = new ArrayDeque<>();
+        private CardSprite current;
+
+        void addAnimation(CardSprite card) {
+            cards.offer(card);
+            if (current == null) {
+                runNext();
+            }
+        }
+
+        CardSprite current() {
+            return current;
+        }
+
+        private void runNext() {
+            current = cards.poll();
+            if (current != null) {
+                startAnimation(current);
+            }
+        }
+
+        void completeAnimation() {
+            current = null;
+            runNext();
+        }
+    }
+
+    // onRules показывает правила окна; onExit == null — без кнопки выхода после проигрыша
+    BlackjackTable(TableContext context, RoundEngine engine, Runnable onRules, Runnable onExit) {
+        super(new BorderLayout());
+        this.context = context;
+        this.engine = engine;
+        this.renderLoop = context.renderLoop;
+        this.labels = context.labels;
+
+        balance = START_BALANCE;
+        playerHand = new ArrayList<>();
+        dealerHand = new ArrayList<>();
+
+        playerScoreLabel = new JLabel("Ваша рука: 0");
+        dealerScoreLabel = new JLabel("Рука дилера: ?");
+        resultLabel = new JLabel("Добро пожаловать в Блэкджек!");
+        balanceLabel = new JLabel("Баланс: " + balance);
+        hitButton = new JButton("Взять карту");
+        standButton = new JButton("Хватит");
+        doubleButton = new JButton("Удвоить");
+        surrenderButton = new JButton("Сдаться");
+        newGameButton = new JButton("Новая игра");
+        JButton rulesButton = new JButton("Правила");
+        countButton = new JToggleButton("Счет", Boolean.getBoolean("blackjack.countOverlay"));
+
+        gamePanel = new BackgroundPanel("/cards/background.png");
+        gamePanel.setLayout(null);
+        gamePanel.setDoubleBuffered(true);
+
+        // Подсказка со счетом в правом верхнем углу стола, включается кнопкой "Счет"
+        countLabel = new JLabel();
+        countLabel.setOpaque(true);
+        countLabel.setBackground(new Color(0, 0, 0, 160));
+        countLabel.setForeground(Color.WHITE);
+        countLabel.setBorder(BorderFactory.createEmptyBorder(4, 8, 4, 8));
+        countLabel.setBounds(560, 10, 220, 90);
+        countLabel.setVisible(countButton.isSelected());
+        gamePanel.add(countLabel);
+        gamePanel.addComponentListener(new ComponentAdapter() {
+            @Override
+            public void componentResized(ComponentEvent e) {
+                countLabel.setLocation(Math.max(0, gamePanel.getWidth() - countLabel.getWidth() - 20), 10);
+            }
+        });
+
+        betSelector = new BetSelector(this::placeBet);
+        gamePanel.add(betSelector);
+        gameOverPrompt = new OverlayPrompt().addButton("Начать заново", this::restartGame);
+        if (!KIOSK && onExit != null) {
+            gameOverPrompt.addButton("Выйти", onExit);
+        }
+        gamePanel.add(gameOverPrompt);
+
+        JPanel buttonPanel = new JPanel();
+        buttonPanel.add(hitButton);
+        buttonPanel.add(standButton);
+        if (engine.rules().doubleRule() != RuleSet.DOUBLE_NONE) {
+            buttonPanel.add(doubleButton);
+        }
+        if (engine.rules().surrender()) {
+            buttonPanel.add(surrenderButton);
+        }
+        buttonPanel.add(newGameButton);
+        buttonPanel.add(rulesButton);
+        buttonPanel.add(countButton);
+
+        // В компактной раскладке четыре строки текста занимают две
+        JPanel textPanel = new JPanel();
+        textPanel.setLayout(context.compact ? new GridLayout(2, 2) : new GridLayout(4, 1));
+        textPanel.add(dealerScoreLabel);
+        textPanel.add(playerScoreLabel);
+        textPanel.add(balanceLabel);
+        textPanel.add(resultLabel);
+
+        add(textPanel, BorderLayout.NORTH);
+        add(gamePanel, BorderLayout.CENTER);
+        add(buttonPanel, BorderLayout.SOUTH);
+
+        hitButton.addActionListener(e -> hit());
+
+        standButton.addActionListener(e -> stand());
+
+        doubleButton.addActionListener(e -> doubleDown());
+
+        surrenderButton.addActionListener(e -> surrender());
+
+        newGameButton.addActionListener(e -> promptForBet());
+
+        rulesButton.addActionListener(e -> onRules.run());
+
+        countButton.addActionListener(e -> {
+            countLabel.setVisible(countButton.isSelected());
+            updateCountOverlay();
+        });
+
+        setState(RoundState.SEATING);
+    }
+
+    // Игрок сел за стол: первая ставка
+    void sitDown() {
+        promptForBet();
+    }
+
+    // Стол table на шузе по умолчанию; -Dblackjack.seed=<число> делает всю сессию
+    // воспроизводимой, у каждого стола свое зерно seed + table
+    static RoundEngine createEngine(int table) {
+        String seed = System.getProperty("blackjack.seed");
+        ShuffleSource shuffle = seed == null ? ShuffleSource.from(new Random())
+                : ShuffleSource.seeded(Long.parseLong(seed) + table);
+        return new RoundEngine(new Shoe(Shoe.DEFAULT_DECKS, Shoe.DEFAULT_PENETRATION, shuffle), createRules());
+    }
+
+    // -Dblackjack.rules=<правила RuleSet>; по умолчанию правила исходной игры.
+    // Стол показывает одну руку игрока, поэтому сплит доступен только в симуляции
+    static RuleSet createRules() {
+        String rules = System.getProperty("blackjack.rules");
+        return (rules == null ? RuleSet.classic() : RuleSet.parse(rules)).withMaxHands(1);
+    }
+
+    // Автоигра через настоящий путь интерфейса: анимации схлопываются, ставка фиксирована,
+    // метки обновляются не чаще нескольких раз в секунду
+    void startAutoPlay(Strategy strategy, int bet) {
+        autoStrategy = strategy;
+        autoBet = bet;
+        labels.setThrottled(true);
+    }
+
+    boolean isAutoPlaying() {
+        return autoStrategy != null;
+    }
+
+    long handsPlayed() {
+        return handsPlayed;
+    }
+
+    private void hit() {
+        setState(RoundState.DEALING);
+        int code = engine.dealPlayer();
+        handRecord.addAction(HandRecord.ACTION_HIT);
+        handRecord.addPlayerCard(code);
+        CardSprite card = createSprite(code);
+        playerHand.add(card);
+        animateCard(card, true, false, NO_ACTION);
+    }
+
+    private void stand() {
+        handRecord.addAction(HandRecord.ACTION_STAND);
+        playDealer();
+    }
+
+    // Ставка удваивается, игрок получает ровно одну карту, дальше играет дилер
+    private void doubleDown() {
+        setState(RoundState.DEALING);
+        balance -= currentBet;
+        currentBet *= 2;
+        handRecord.setBet(currentBet);
+        handRecord.addAction(HandRecord.ACTION_DOUBLE);
+        int code = engine.doubleDown();
+        handRecord.addPlayerCard(code);
+        updateScores();
+        CardSprite card = createSprite(code);
+        playerHand.add(card);
+        animateCard(card, true, false, afterDouble);
+    }
+
+    private void afterDouble() {
+        if (!Hands.isBust(engine.playerHand())) {
+            later(DEAL_DELAY_MS, dealerStep);
+        }
+    }
+
+    private void surrender() {
+        handRecord.addAction(HandRecord.ACTION_SURRENDER);
+        engine.surrender();
+        endGame();
+        determineWinner();
+        finishRound();
+    }
+
+    // В автоигре шаги идут через очередь стола без пауз, иначе — через кадровый цикл
+    private void later(long delayMs, Runnable task) {
+        if (autoStrategy != null) {
+            postAutoStep(task);
+        } else {
+            renderLoop.schedule(delayMs, task);
+        }
+    }
+
+    // Шаг выполнится после текущего события; событие EDT заводится одно на всю порцию
+    private void postAutoStep(Runnable step) {
+        autoSteps.add(step);
+        if (!autoStepsPosted) {
+            autoStepsPosted = true;
+            EventQueue.invokeLater(drainAutoSteps);
+        }
+    }
+
+    private void drainAutoSteps() {
+        long deadline = System.nanoTime() + AUTO_SLICE_NANOS;
+        Runnable step;
+        while ((step = autoSteps.poll()) != null) {
+            step.run();
+            if (System.nanoTime() >= deadline) {
+                break;
+            }
+        }
+        autoStepsPosted = !autoSteps.isEmpty();
+        if (autoStepsPosted) {
+            EventQueue.invokeLater(drainAutoSteps);
+        }
+    }
+
+    private void scheduleAutoDecision() {
+        if (autoStrategy != null) {
+            postAutoStep(autoDecision);
+        }
+    }
+
+    private void makeAutoDecision() {
+        if (state != RoundState.PLAYER_TURN) {
+            return;
+        }
+        if (surrenderButton.isEnabled() && autoStrategy.shouldSurrender(engine)) {
+            surrender();
+        } else if (doubleButton.isEnabled() && autoStrategy.shouldDouble(engine)) {
+            doubleDown();
+        } else if (autoStrategy.shouldHit(engine)) {
+            hit();
+        } else {
+            stand();
+        }
+    }
+
+    private void finishRound() {
+        handsPlayed++;
+        metrics.recordHand(engine.outcome());
+        recordRound();
+        checkGameOver();
+        if (autoStrategy != null) {
+            labels.setText(resultLabel, "Автоигра: раздач ", handsPlayed);
+            postAutoStep(promptStep);
+        }
+    }
+
+    // История раздач пишется в файл из -Dblackjack.history (по умолчанию hands.bjh),
+    // пустое значение отключает запись. Столы одного окна пишут каждый в свой файл:
+    // hands-1.bjh, hands-2.bjh и так далее, иначе баланс в истории не сойдется
+    static String historyPath(int table, boolean numbered) {
+        String path = System.getProperty("blackjack.history", "hands.bjh");
+        if (path.isEmpty() || !numbered) {
+            return path;
+        }
+        int dot = path.lastIndexOf('.');
+        String suffix = "-" + (table + 1);
+        return dot > 0 ? path.substring(0, dot) + suffix + path.substring(dot) : path + suffix;
+    }
+
+    void openHistory(String path) {
+        if (path.isEmpty()) {
+            return;
+        }
+        try {
+            HandHistoryWriter writer = new HandHistoryWriter(Path.of(path), engine.shoe().decks(), engine.rules());
+            history = writer;
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                try {
+                    writer.close();
+                } catch (IOException e) {
+                    System.err.println("Не удалось закрыть историю раздач: " + e.getMessage());
+                }
+            }));
+        } catch (IOException e) {
+            System.err.println("Не удалось открыть историю раздач: " + e.getMessage());
+        }
+    }
+
+    private void recordRound() {
+        if (history == null) {
+            return;
+        }
+        try {
+            history.append(handRecord);
+        } catch (IOException e) {
+            System.err.println("Не удалось записать раздачу: " + e.getMessage());
+            history = null;
+        }
+    }
+
+    static String rulesText(RuleSet rules) {
+        String extraRules = (rules.dealerHitsSoft17() ? "<li>На мягких 17 дилер берет карту</li>" : "")
+                + (rules.doubleRule() != RuleSet.DOUBLE_NONE
+                        ? "<li>На первых двух картах можно удвоить ставку и получить ровно одну карту</li>" : "")
+                + (rules.surrender() ? "<li>Первым ходом можно сдаться и вернуть половину ставки, если у дилера нет блэкджека</li>" : "");
+        String blackjackPayout = rules.blackjackPayout() == RuleSet.BLACKJACK_6_TO_5 ? "6:5"
+                : rules.blackjackPayout() == RuleSet.BLACKJACK_1_TO_1 ? "1:1" : "3:2";
+        return "<html><div style='width:400px;'><h2>Правила Блэкджека</h2>"
+                + "<p><b>Цель игры:</b> Набрать сумму очков, максимально близкую к 21, но не больше.</p>"
+                + "<p><b>Ход игры:</b></p>"
+                + "<ul>"
+                + "<li>Игрок и дилер получают по 2 карты</li>"
+                + "<li>Карты дилера: одна открыта, одна скрыта</li>"
+                + "<li>Игрок может брать дополнительные карты (Hit) или остановиться (Stand)</li>"
+                + "<li>Дилер обязан брать карты, пока не наберет 17 или более очков</li>"
+                + extraRules
+                + "</ul>"
+                + "<p><b>Значения карт:</b></p>"
+                + "<table border='1' style='width:100%; border-collapse:collapse;'>"
+                + "<tr><th>Карта</th><th>Очки</th></tr>"
+                + "<tr><td>2-10</td><td>По номиналу</td></tr>"
+                + "<tr><td>Валет (J)</td><td>10</td></tr>"
+                + "<tr><td>Дама (Q)</td><td>10</td></tr>"
+                + "<tr><td>Король (K)</td><td>10</td></tr>"
+                + "<tr><td>Туз (A)</td><td>1 или 11</td></tr>"
+                + "</table>"
+                + "<p><b>Выигрыш:</b></p>"
+                + "<ul>"
+                + "<li>Обычная победа: выплата 1:1</li>"
+                + "<li>Блэкджек (21 из 2 карт): выплата " + blackjackPayout + "</li>"
+                + "</ul></div></html>";
+    }
+
+    // Ставка выбирается на панели стола; раунд начинает placeBet
+    private void promptForBet() {
+        setState(RoundState.BETTING);
+        betPromptedAt = System.nanoTime();
+        if (autoStrategy != null) {
+            placeBet(Math.min(autoBet, balance));
+            return;
+        }
+        labels.setText(resultLabel, "Сделайте ставку");
+        betSelector.open(balance);
+        betSelector.setLocation(Math.max(0, (gamePanel.getWidth() - betSelector.getWidth()) / 2),
+                Math.max(0, Math.min(context.betY, gamePanel.getHeight() - betSelector.getHeight())));
+        gamePanel.setComponentZOrder(betSelector, 0);
+    }
+
+    private void placeBet(int bet) {
+        if (state != RoundState.BETTING) {
+            return;
+        }
+        currentBet = bet;
+        balance -= currentBet;
+        updateScores();
+        startNewGame();
+    }
+
+    // Кнопки и панели стола следуют за состоянием раунда
+    private void setState(RoundState next) {
+        state = next;
+        boolean playerTurn = next == RoundState.PLAYER_TURN;
+        hitButton.setEnabled(playerTurn);
+        standButton.setEnabled(playerTurn);
+        doubleButton.setEnabled(playerTurn && engine.canDouble() && balance >= currentBet);
+        surrenderButton.setEnabled(playerTurn && engine.canSurrender());
+        newGameButton.setEnabled(next == RoundState.SETTLED);
+        if (dealerRevealed()) {
+            engine.revealHoleCard();
+        }
+        if (next != RoundState.BETTING) {
+            betSelector.setVisible(false);
+        }
+        if (next != RoundState.GAME_OVER) {
+            gameOverPrompt.setVisible(false);
+        }
+    }
+
+    // Карты дилера открыты с его хода до конца раунда
+    private boolean dealerRevealed() {
+        return state == RoundState.DEALER_TURN || state == RoundState.SETTLED || state == RoundState.GAME_OVER;
+    }
+
+    private CardSprite createSprite(int code) {
+        CardSprite sprite = spritePool.acquire(gamePanel);
+        CardAtlas atlas = context.cardAtlas.join();
+        sprite.show(atlas.faceIcon(code), atlas.backIcon());
+        return sprite;
+    }
+
+    private void updateScores() {
+        playerScore = engine.playerScore();
+        dealerScore = engine.dealerScore();
+        labels.setText(playerScoreLabel, scoreText(PLAYER_SCORE_TEXTS, "Ваша рука: ", playerScore));
+
+        // Показываем счет дилера только если игра закончена
+        if (dealerRevealed()) {
+            labels.setText(dealerScoreLabel, scoreText(DEALER_SCORE_TEXTS, "Рука дилера: ", dealerScore));
+        } else {
+            labels.setText(dealerScoreLabel, "Рука дилера: ?");
+        }
+
+        labels.setText(balanceLabel, "Баланс: ", balance);
+        updateCountOverlay();
+    }
+
+    private static String scoreText(String[] texts, String prefix, int score) {
+        String text = texts[score];
+        if (text == null) {
+            text = prefix + score;
+            texts[score] = text;
+        }
+        return text;
+    }
+
+    private static String versusText(String[] texts, String prefix, int first, int second) {
+        int key = first * (MAX_SCORE + 1) + second;
+        String text = texts[key];
+        if (text == null) {
+            text = prefix + first + " против " + second;
+            texts[key] = text;
+        }
+        return text;
+    }
+
+    // Счет ведет шуз; пока карта дилера закрыта, она не должна попадать в подсказку
+    private void updateCountOverlay() {
+        if (!countButton.isSelected()) {
+            return;
+        }
+        ShoeState shoe = engine.playerView();
+        labels.setText(countLabel, String.format("<html>Текущий счет: %+d<br>Истинный счет: %+.1f<br>"
+                        + "Пройдено: %.0f%% (подрезка %.0f%%)<br>Осталось тузов: %d</html>",
+                shoe.runningCount(), shoe.trueCount(), shoe.penetration() * 100, shoe.cutCard() * 100.0 / shoe.size(),
+                shoe.remainingOfRank(Cards.ACE)));
+    }
+
+    private void animateCard(CardSprite card, boolean isPlayer, boolean isHidden, Runnable onComplete) {
+        card.toPlayer = isPlayer;
+        card.hidden = isHidden;
+        card.onDealt = onComplete;
+        animationQueue.addAnimation(card);
+    }
+
+    private void startAnimation(CardSprite card) {
+        int cardWidth = card.face.getIconWidth();
+        int cardHeight = card.face.getIconHeight();
+
+        card.label.setBounds(context.deckX, context.deckY, cardWidth, cardHeight);
+        card.label.setVisible(true);
+        gamePanel.setComponentZOrder(card.label, 0);
+
+        card.label.setIcon(card.cardBack);
+
+        int targetX = context.handX + (card.toPlayer ? playerHand.size() : dealerHand.size()) * (cardWidth - context.overlap);
+        int targetY = card.toPlayer ? context.playerY : context.dealerY;
+
+        if (autoStrategy != null) {
+            card.setPosition(targetX, targetY);
+            if (!card.hidden) {
+                card.reveal();
+            }
+            postAutoStep(animationDone);
+            return;
+        }
+
+        renderLoop.move(card.label, targetX, targetY, CARD_ANIMATION_MS, 0.9,
+                card.hidden ? null : card.revealAction, animationDone);
+    }
+
+    private void animationDone() {
+        CardSprite card = animationQueue.current();
+        Runnable onDealt = card.onDealt;
+        handleAnimationComplete(card.toPlayer);
+        onDealt.run();
+        animationQueue.completeAnimation();
+    }
+
+    private void handleAnimationComplete(boolean isPlayer) {
+        updateScores();
+
+        if (isPlayer && playerScore > 21) {
+            labels.setText(resultLabel, "Перебор! Дилер победил!");
+            endGame();
+            handRecord.settle(RoundEngine.OUTCOME_PLAYER_BUST, 0, balance);
+            finishRound();
+        } else if (dealingInitialCards) {
+            cardsToDeal--;
+            if (cardsToDeal == 0) {
+                dealingInitialCards = false;
+                // Удалено автоматическое завершение игры при блэкджеке дилера
+                enablePlayerTurn();
+            }
+        } else if (isPlayer && !engine.isDoubled(0)) {
+            enablePlayerTurn();
+        }
+
+        arrangeCards(isPlayer);
+    }
+
+    private void arrangeCards(boolean isPlayer) {
+        ArrayList<CardSprite> hand = isPlayer ? playerHand : dealerHand;
+        int y = isPlayer ? context.playerY : context.dealerY;
+
+        for (int i = 0; i < hand.size(); i++) {
+            CardSprite card = hand.get(i);
+            card.setPosition(context.handX + i * (context.cardWidth - context.overlap), y);
+        }
+    }
+
+    private void enablePlayerTurn() {
+        setState(RoundState.PLAYER_TURN);
+        labels.setText(resultLabel, "Ваш ход");
+        scheduleAutoDecision();
+    }
+
+    private void endGame() {
+        setState(RoundState.DEALER_TURN);
+        // Раскрываем все карты дилера
+        for (CardSprite card : dealerHand) {
+            card.reveal();
+        }
+        updateScores();
+    }
+
+    private void startNewGame() {
+        setState(RoundState.DEALING);
+        playerHand.clear();
+        dealerHand.clear();
+        spritePool.releaseAll();
+        gamePanel.repaint();
+
+        if (engine.startRound()) {
+            labels.setText(resultLabel, "Шуз перемешан. Раздача карт...");
+        } else {
+            labels.setText(resultLabel, "Раздача карт...");
+        }
+        handRecord.reset(engine.shoe().shuffleSeed(), engine.shoe().position(), currentBet);
+        dealingInitialCards = true;
+        cardsToDeal = 4;
+
+        dealInitialCards(0);
+    }
+
+    // Ход игрока открывает handleAnimationComplete после четвертой карты
+    private void dealInitialCards(int index) {
+        boolean isPlayer = index % 2 == 0;
+        boolean isHidden = !isPlayer && index == 3;
+        int code = isPlayer ? engine.dealPlayer() : engine.dealDealer();
+        if (isPlayer) {
+            handRecord.addPlayerCard(code);
+        } else {
+            handRecord.addDealerCard(code);
+        }
+        CardSprite card = createSprite(code);
+        (isPlayer ? playerHand : dealerHand).add(card);
+        if (index == 0 && betPromptedAt != 0) {
+            metrics.recordBetToFirstCard(System.nanoTime() - betPromptedAt);
+            betPromptedAt = 0;
+        }
+
+        nextDealIndex = index + 1;
+        animateCard(card, isPlayer, isHidden, index < 3 ? scheduleNextDeal : NO_ACTION);
+    }
+
+    private void playDealer() {
+        endGame(); // Завершаем игру, раскрываем карты дилера
+
+        if (engine.dealerMustHit()) {
+            int code = engine.dealDealer();
+            handRecord.addDealerCard(code);
+            CardSprite card = createSprite(code);
+            dealerHand.add(card);
+            animateCard(card, false, false, scheduleDealerStep);
+        } else {
+            determineWinner();
+            finishRound();
+        }
+    }
+
+    private void determineWinner() {
+        updateScores();
+        int outcome = engine.outcome();
+        switch (outcome) {
+            case RoundEngine.OUTCOME_PLAYER_BUST:
+                labels.setText(resultLabel, "Перебор! Дилер победил!");
+                break;
+            case RoundEngine.OUTCOME_DEALER_BUST:
+                labels.setText(resultLabel, "Дилер перебрал! Вы победили!");
+                break;
+            case RoundEngine.OUTCOME_BLACKJACK:
+                labels.setText(resultLabel, "Блэкджек! Вы победили!");
+                break;
+            case RoundEngine.OUTCOME_WIN:
+                labels.setText(resultLabel, versusText(WIN_TEXTS, "Вы победили! ", playerScore, dealerScore));
+                break;
+            case RoundEngine.OUTCOME_LOSS:
+                labels.setText(resultLabel, versusText(LOSS_TEXTS, "Дилер победил! ", dealerScore, playerScore));
+                break;
+            case RoundEngine.OUTCOME_SURRENDER:
+                labels.setText(resultLabel, "Вы сдались. Возвращена половина ставки");
+                break;
+            default:
+                labels.setText(resultLabel, versusText(PUSH_TEXTS, "Ничья! ", playerScore, playerScore));
+                break;
+        }
+        int payout = engine.rules().payout(outcome, currentBet);
+        balance += payout;
+        handRecord.settle(outcome, payout, balance);
+        labels.setText(balanceLabel, "Баланс: ", balance);
+    }
+
+    // Раунд закрыт; без фишек стол предлагает начать заново
+    private void checkGameOver() {
+        if (balance <= 0 && autoStrategy != null) {
+            balance = START_BALANCE;
+            labels.setText(balanceLabel, "Баланс: ", balance);
+        }
+        if (balance > 0) {
+            setState(RoundState.SETTLED);
+            return;
+        }
+        setState(RoundState.GAME_OVER);
+        labels.setText(resultLabel, "Игра окончена! У вас закончились фишки.");
+        gameOverPrompt.setMessage(KIOSK
+                ? "У вас закончились фишки! Новая игра начнется через " + KIOSK_RESTART_MS / 1000 + " с."
+                : "У вас закончились фишки! Начать новую игру?");
+        gameOverPrompt.showCentered(Math.min(380, gamePanel.getWidth()), 110);
+        if (KIOSK) {
+            renderLoop.schedule(KIOSK_RESTART_MS, () -> {
+                if (state == RoundState.GAME_OVER) {
+                    restartGame();
+                }
+            });
+        }
+    }
+
+    private void restartGame() {
+        balance = START_BALANCE;
+        labels.setText(balanceLabel, "Баланс: ", balance);
+        promptForBet();
+    }
+
+}
+
@@ -0,0 +1,149 @@
+import blackjack.Cards;
+import blackjack.metrics.GameMetrics;
+
+import javax.imageio.ImageIO;
+import javax.swing.ImageIcon;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Все карты и рубашка в одном изображении, совместимом с экраном.
+// PNG декодируются один раз, атласы под каждый размер строятся один раз и
+// публикуются через ConcurrentHashMap, поэтому их можно читать из любого потока.
+final class CardAtlas {
+    static final int CARD_WIDTH = 90;
+    static final int CARD_HEIGHT = 120;
+    static final int BACK = Cards.DECK_SIZE;
+    static final String BACK_PATH = "/cards/card_back.png";
+
+    private static final ConcurrentHashMap<Integer, CardAtlas> ATLASES = new ConcurrentHashMap<>();
+
+    private final int width;
+    private final int height;
+    private final BufferedImage atlas;
+    private final BufferedImage[] slices = new BufferedImage[Cards.DECK_SIZE + 1];
+    private final ImageIcon[] icons = new ImageIcon[Cards.DECK_SIZE + 1];
+
+    // Исходные изображения загружаются лениво и ровно один раз (инициализация класса-холдера потокобезопасна).
+    // Если при сборке создан пакет изображений под стандартный размер, PNG не декодируются вовсе.
+    private static final class Sources {
+        static final BufferedImage[] IMAGES = loadAll();
+
+        private static BufferedImage[] loadAll() {
+            BufferedImage[] images = new BufferedImage[Cards.DECK_SIZE + 1];
+            AssetPack pack = AssetPack.get();
+            if (pack != null && pack.width(BACK) == CARD_WIDTH && pack.height(BACK) == CARD_HEIGHT) {
+                for (int index = 0; index < images.length; index++) {
+                    images[index] = pack.image(index);
+                }
+                return images;
+            }
+            for (int code = 0; code < Cards.DECK_SIZE; code++) {
+                images[code] = decode(Cards.imagePath(code));
+            }
+            images[BACK] = decode(BACK_PATH);
+            return images;
+        }
+
+        private static BufferedImage decode(String path) {
+            long start = System.nanoTime();
+            try (InputStream in = CardAtlas.class.getResourceAsStream(path)) {
+                BufferedImage image = in == null ? null : ImageIO.read(in);
+                if (image == null) {
+                    throw new RuntimeException("Не удалось загрузить изображение карты: " + path);
+                }
+                GameMetrics.get().recordImageLoad(System.nanoTime() - start);
+                return image;
+            } catch (IOException e) {
+                throw new RuntimeException("Не удалось загрузить изображение карты: " + path, e);
+            }
+        }
+    }
+
+    static CardAtlas forSize(int width, int height) {
+        return ATLASES.computeIfAbsent((width << 16) | height, key -> new CardAtlas(width, height));
+    }
+
+    static CardAtlas standard() {
+        return forSize(CARD_WIDTH, CARD_HEIGHT);
+    }
+
+    private CardAtlas(int width, int height) {
+        this.width = width;
+        this.height = height;
+        // 13 достоинств по горизонтали, 4 масти и строка с рубашкой по вертикали
+        atlas = createCompatibleImage(width * Cards.RANKS, height * (Cards.SUITS + 1));
+        Graphics2D g = atlas.createGraphics();
+        try {
+            BufferedImage[] sources = Sources.IMAGES;
+            for (int index = 0; index < sources.length; index++) {
+                int x = index == BACK ? 0 : Cards.rank(index) * width;
+                int y = index == BACK ? Cards.SUITS * height : Cards.suit(index) * height;
+                g.drawImage(scale(sources[index], width, height), x, y, null);
+                slices[index] = atlas.getSubimage(x, y, width, height);
+                icons[index] = new ImageIcon(slices[index]);
+            }
+        } finally {
+            g.dispose();
+        }
+    }
+
+    private static BufferedImage createCompatibleImage(int width, int height) {
+        if (GraphicsEnvironment.isHeadless()) {
+            return new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB_PRE);
+        }
+        GraphicsConfiguration config = GraphicsEnvironment.getLocalGraphicsEnvironment()
+                .getDefaultScreenDevice().getDefaultConfiguration();
+        return config.createCompatibleImage(width, height, Transparency.TRANSLUCENT);
+    }
+
+    // Уменьшаем вдвое, пока не приблизимся к цели, затем бикубически — качество как у SCALE_SMOOTH
+    static BufferedImage scale(BufferedImage source, int width, int height) {
+        if (source.getWidth() == width && source.getHeight() == height) {
+            return source;
+        }
+        long start = System.nanoTime();
+        BufferedImage current = source;
+        int w = source.getWidth();
+        int h = source.getHeight();
+        do {
+            w = Math.max(width, w / 2);
+            h = Math.max(height, h / 2);
+            BufferedImage next = new BufferedImage(w, h, BufferedImage.TYPE_INT_ARGB_PRE);
+            Graphics2D g = next.createGraphics();
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BICUBIC);
+            g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            g.drawImage(current, 0, 0, w, h, null);
+            g.dispose();
+            current = next;
+        } while (w != width || h != height);
+        GameMetrics.get().recordImageScale(System.nanoTime() - start);
+        return current;
+    }
+
+    int width() {
+        return width;
+    }
+
+    int height() {
+        return height;
+    }
+
+    BufferedImage face(int code) {
+        return slices[code];
+    }
+
+    BufferedImage back() {
+        return slices[BACK];
+    }
+
+    ImageIcon faceIcon(int code) {
+        return icons[code];
+    }
+
+    ImageIcon backIcon() {
+        return icons[BACK];
+    }
+}
@@ -0,0 +1,32 @@
+import blackjack.metrics.GameMetrics;
+
+import java.awt.EventQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+// Задержка очереди событий: фоновый поток периодически ставит в EDT пустую задачу
+// и записывает, сколько она ждала своей очереди.
+final class EdtProbe {
+    private static final long PERIOD_MS = 100;
+
+    private static ScheduledExecutorService probe;
+
+    static synchronized void start() {
+        if (probe != null) {
+            return;
+        }
+        probe = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "edt-probe");
+            thread.setDaemon(true);
+            return thread;
+        });
+        probe.scheduleAtFixedRate(() -> {
+            long posted = System.nanoTime();
+            EventQueue.invokeLater(() -> GameMetrics.get().recordEdtLatency(System.nanoTime() - posted));
+        }, PERIOD_MS, PERIOD_MS, TimeUnit.MILLISECONDS);
+    }
+
+    private EdtProbe() {
+    }
+}
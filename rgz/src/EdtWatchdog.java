@@ -0,0 +1,82 @@
+import blackjack.metrics.GameMetrics;
+
+import java.awt.AWTEvent;
+import java.awt.EventQueue;
+import java.awt.Toolkit;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+// Сторож EDT: своя очередь событий замеряет обработку каждого события и пишет в stderr
+// те, что дольше порога (-Dblackjack.edtWatchdog=<мс>, по умолчанию 100, 0 — выключен).
+// Фоновый поток замечает событие, которое все еще обрабатывается дольше порога,
+// и один раз печатает стек EDT — по нему видно, где поток застрял.
+final class EdtWatchdog extends EventQueue {
+    private static final long THRESHOLD_MS = Long.getLong("blackjack.edtWatchdog", 100);
+    private static final long THRESHOLD_NANOS = THRESHOLD_MS * 1_000_000L;
+    private static final int MAX_DESCRIPTION = 160;
+
+    private static boolean installed;
+
+    // Начало текущей обработки; 0 — EDT свободен
+    private volatile long dispatchStart;
+    private volatile Thread dispatchThread;
+    private long stackReportedFor;
+
+    static synchronized void install() {
+        if (installed || THRESHOLD_MS <= 0) {
+            return;
+        }
+        installed = true;
+        EdtWatchdog queue = new EdtWatchdog();
+        Toolkit.getDefaultToolkit().getSystemEventQueue().push(queue);
+        ScheduledExecutorService checker = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "edt-watchdog");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long period = Math.max(1, THRESHOLD_MS / 2);
+        checker.scheduleAtFixedRate(queue::checkStuck, period, period, TimeUnit.MILLISECONDS);
+    }
+
+    private EdtWatchdog() {
+    }
+
+    @Override
+    protected void dispatchEvent(AWTEvent event) {
+        // Вложенный цикл событий (модальное окно) вызывает dispatchEvent повторно
+        long outer = dispatchStart;
+        long start = System.nanoTime();
+        dispatchThread = Thread.currentThread();
+        dispatchStart = start;
+        try {
+            super.dispatchEvent(event);
+        } finally {
+            dispatchStart = outer;
+            long nanos = System.nanoTime() - start;
+            if (nanos > THRESHOLD_NANOS) {
+                GameMetrics.get().recordSlowEdtEvent();
+                System.err.printf("EDT: событие обрабатывалось %d мс: %s%n", nanos / 1_000_000, describe(event));
+            }
+        }
+    }
+
+    private void checkStuck() {
+        long start = dispatchStart;
+        Thread thread = dispatchThread;
+        if (start == 0 || thread == null || start == stackReportedFor || System.nanoTime() - start <= THRESHOLD_NANOS) {
+            return;
+        }
+        stackReportedFor = start;
+        StringBuilder stack = new StringBuilder();
+        for (StackTraceElement element : thread.getStackTrace()) {
+            stack.append("\tat ").append(element).append(System.lineSeparator());
+        }
+        System.err.printf("EDT занят дольше %d мс, стек:%n%s", THRESHOLD_MS, stack);
+    }
+
+    private static String describe(AWTEvent event) {
+        String text = event.toString();
+        return text.length() > MAX_DESCRIPTION ? text.substring(0, MAX_DESCRIPTION) + "..." : text;
+    }
+}
@@ -0,0 +1,85 @@
+import javax.swing.JLabel;
+import javax.swing.Timer;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+
+// В обычном режиме текст выставляется сразу. В режиме ограничения запоминается
+// только последний текст каждой метки и применяется не чаще раза за интервал.
+// Текст вида "префикс + число" в режиме ограничения собирается только при сбросе,
+// поэтому частые обновления баланса и счетчиков не создают строк.
+final class LabelThrottle {
+    // Отложенный текст метки; слот заводится при первом обращении и больше не удаляется
+    private static final class Slot {
+        final JLabel label;
+        String text;
+        String prefix;
+        long number;
+        boolean dirty;
+
+        Slot(JLabel label) {
+            this.label = label;
+        }
+    }
+
+    private final IdentityHashMap<JLabel, Slot> slots = new IdentityHashMap<>();
+    private final ArrayList<Slot> order = new ArrayList<>();
+    private final Timer flushTimer;
+    private boolean throttled;
+
+    LabelThrottle(int intervalMs) {
+        flushTimer = new Timer(intervalMs, e -> flush());
+    }
+
+    void setThrottled(boolean throttled) {
+        this.throttled = throttled;
+        if (throttled) {
+            flushTimer.start();
+        } else {
+            flushTimer.stop();
+            flush();
+        }
+    }
+
+    void setText(JLabel label, String text) {
+        if (throttled) {
+            Slot slot = slot(label);
+            slot.text = text;
+            slot.prefix = null;
+            slot.dirty = true;
+        } else {
+            label.setText(text);
+        }
+    }
+
+    void setText(JLabel label, String prefix, long number) {
+        if (throttled) {
+            Slot slot = slot(label);
+            slot.text = null;
+            slot.prefix = prefix;
+            slot.number = number;
+            slot.dirty = true;
+        } else {
+            label.setText(prefix + number);
+        }
+    }
+
+    private Slot slot(JLabel label) {
+        Slot slot = slots.get(label);
+        if (slot == null) {
+            slot = new Slot(label);
+            slots.put(label, slot);
+            order.add(slot);
+        }
+        return slot;
+    }
+
+    private void flush() {
+        for (int i = 0; i < order.size(); i++) {
+            Slot slot = order.get(i);
+            if (slot.dirty) {
+                slot.dirty = false;
+                slot.label.setText(slot.prefix != null ? slot.prefix + slot.number : slot.text);
+            }
+        }
+    }
+}
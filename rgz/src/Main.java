@@ -1,11 +1,397 @@
 import javax.swing.SwingUtilities;
 
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import blackjack.Cards;
+import blackjack.Hands;
+import blackjack.RuleSet;
+import blackjack.Shoe;
+import blackjack.Strategies;
+import blackjack.Strategy;
+import blackjack.analysis.EvCalculator;
+import blackjack.analytics.AnalyticsReport;
+import blackjack.analytics.Dimension;
+import blackjack.analytics.GroupedResult;
+import blackjack.analytics.HandColumns;
+import blackjack.history.HistoryAudit;
+import blackjack.history.ReplayDriver;
+import blackjack.history.RoundRecorder;
+import blackjack.server.GameServer;
+import blackjack.server.LoadGenerator;
+import blackjack.sim.BankrollReport;
+import blackjack.sim.BankrollResult;
+import blackjack.sim.BankrollSimulator;
+import blackjack.sim.MonteCarloSimulator;
+import blackjack.sim.ShardCoordinator;
+import blackjack.sim.ShardWorker;
+import blackjack.sim.SimulationReport;
+import blackjack.sim.SimulationResult;
+import blackjack.sim.Tournament;
+import blackjack.sim.TournamentReport;
+import blackjack.sim.TournamentResult;
+
 
 public class Main {  // Главный класс должен быть объявлен
     public static void main(String[] args) {
+        if (args.length > 0 && args[0].equals("simulate")) {
+            runSimulation(args);
+            return;
+        }
+        if (args.length > 1 && args[0].equals("audit")) {
+            runAudit(args[1]);
+            return;
+        }
+        if (args.length > 2 && args[0].equals("analyze")) {
+            runAnalyze(args);
+            return;
+        }
+        if (args.length > 1 && args[0].equals("record")) {
+            runRecord(args);
+            return;
+        }
+        if (args.length > 1 && args[0].equals("replay")) {
+            runReplay(args[1]);
+            return;
+        }
+        if (args.length > 0 && args[0].equals("tournament")) {
+            runTournament(args);
+            return;
+        }
+        if (args.length > 0 && args[0].equals("bankroll")) {
+            runBankroll(args);
+            return;
+        }
+        if (args.length > 0 && args[0].equals("server")) {
+            runServer(args);
+            return;
+        }
+        if (args.length > 0 && args[0].equals("loadgen")) {
+            runLoad(args);
+            return;
+        }
+        if (args.length > 0 && args[0].equals("sharded")) {
+            runSharded(args);
+            return;
+        }
+        if (args.length > 2 && args[0].equals("shard-worker")) {
+            runShardWorker(args);
+            return;
+        }
+        if (args.length > 0 && args[0].equals("tables")) {
+            runTables(args);
+            return;
+        }
+        if (args.length > 2 && args[0].equals("ev")) {
+            runEv(args);
+            return;
+        }
+        if (args.length > 0 && args[0].equals("alloccheck")) {
+            runAllocationCheck(args);
+            return;
+        }
+        if (args.length > 0 && args[0].equals("batchcheck")) {
+            runBatchCheck(args);
+            return;
+        }
         SwingUtilities.invokeLater(() -> {
             BlackjackGame game = new BlackjackGame();
             game.setVisible(true);
+            // autoplay [ставка] [стратегия или "стоит на" число]
+            if (args.length > 0 && args[0].equals("autoplay")) {
+                int bet = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+                game.startAutoPlay(parseStrategy(args.length > 2 ? args[2] : "17"), bet);
+            }
         });
     }
-}
\ No newline at end of file
+
+    // tables [столов] [ставка автоигры] [стратегия]: без ставки столы ждут игроков
+    private static void runTables(String[] args) {
+        int count = args.length > 1 ? Integer.parseInt(args[1]) : MultiTableFrame.MIN_TABLES;
+        SwingUtilities.invokeLater(() -> {
+            MultiTableFrame frame = new MultiTableFrame(count);
+            if (args.length > 2) {
+                frame.startAutoPlay(parseStrategy(args.length > 3 ? args[3] : "17"), Integer.parseInt(args[2]));
+            }
+            frame.sitDown();
+        });
+    }
+
+    // ev <карты игрока через запятую> <открытая карта дилера> [колод] [правила] — точный EV
+    // для полного шуза без видимых карт, например "ev 10,6 10"
+    private static void runEv(String[] args) {
+        int decks = args.length > 3 ? Integer.parseInt(args[3]) : Shoe.DEFAULT_DECKS;
+        RuleSet rules = args.length > 4 ? RuleSet.parse(args[4]) : RuleSet.classic();
+        int[] byRank = new int[Cards.RANKS];
+        Arrays.fill(byRank, decks * Cards.SUITS);
+        int playerHand = Hands.EMPTY;
+        for (String value : args[1].split(",")) {
+            int card = parseCard(value);
+            playerHand = Hands.add(playerHand, card);
+            byRank[Cards.rank(card)]--;
+        }
+        int upcard = parseCard(args[2]);
+        byRank[Cards.rank(upcard)]--;
+
+        EvCalculator calculator = new EvCalculator(rules);
+        long start = System.nanoTime();
+        double stand = calculator.standEv(byRank, playerHand, upcard);
+        double hit = calculator.hitEv(byRank, playerHand, upcard);
+        System.out.printf("Рука %d против %s, колод %d, правила %s: хватит %+.4f, взять %+.4f — %s (%.1f мс)%n",
+                Hands.score(playerHand), Cards.value(upcard), decks, rules, stand, hit,
+                hit > stand ? "брать" : "хватит", (System.nanoTime() - start) / 1e6);
+    }
+
+    private static int parseCard(String value) {
+        for (int rank = 0; rank < Cards.RANKS; rank++) {
+            if (Cards.value(Cards.of(rank, 0)).equalsIgnoreCase(value)) {
+                return Cards.of(rank, 0);
+            }
+        }
+        throw new IllegalArgumentException("Неизвестная карта: " + value);
+    }
+
+    // alloccheck [раунды] — выделения памяти в установившемся раунде; код 2 при превышении порога
+    private static void runAllocationCheck(String[] args) {
+        long rounds = args.length > 1 ? Long.parseLong(args[1]) : 1_000_000L;
+        try {
+            System.exit(AllocationCheck.run(rounds, System.out) ? 0 : 2);
+        } catch (IOException | InvocationTargetException e) {
+            System.err.println("Проверка выделений не удалась: " + e.getMessage());
+            System.exit(1);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // batchcheck [наибольший пакет] — векторная и скалярная пакетная оценка против RuleSet;
+    // код 2 при расхождении. Нужен --add-modules jdk.incubator.vector
+    private static void runBatchCheck(String[] args) {
+        int maxCount = args.length > 1 ? Integer.parseInt(args[1]) : 4099;
+        System.exit(BatchParityCheck.run(maxCount, System.out) ? 0 : 2);
+    }
+
+    // simulate [раунды] [потоки] [seed] [стратегия или "стоит на" число] [колод] [правила]
+    private static void runSimulation(String[] args) {
+        long rounds = args.length > 1 ? Long.parseLong(args[1]) : 100_000_000L;
+        int threads = args.length > 2 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+        long seed = args.length > 3 ? Long.parseLong(args[3]) : System.nanoTime();
+        String strategy = args.length > 4 ? args[4] : "17";
+        int decks = args.length > 5 ? Integer.parseInt(args[5]) : Shoe.DEFAULT_DECKS;
+        RuleSet rules = args.length > 6 ? RuleSet.parse(args[6]) : RuleSet.classic();
+
+        double target = targetHalfWidth();
+
+        System.out.printf("Симуляция: до %,d раундов, %d потоков, seed %d, стратегия %s, колод %d, правила %s%s%n",
+                rounds, threads, seed, strategy, decks, rules, targetNote(target));
+        long start = System.nanoTime();
+        SimulationResult result = new MonteCarloSimulator(parseStrategy(strategy), rules, decks,
+                Shoe.DEFAULT_PENETRATION, threads).runUntil(target, rounds, seed, SimulationReport.progress(System.err));
+        System.err.println();
+        SimulationReport.print(System.out, result, System.nanoTime() - start);
+    }
+
+    // bankroll [траектории] [раундов в сессии] [потоки] [seed] [фишки через запятую]
+    //          [системы через запятую] [стратегия] [правила]
+    private static void runBankroll(String[] args) {
+        long trajectories = args.length > 1 ? Long.parseLong(args[1]) : 100_000L;
+        int sessionRounds = args.length > 2 ? Integer.parseInt(args[2]) : 1000;
+        int threads = args.length > 3 ? Integer.parseInt(args[3]) : Runtime.getRuntime().availableProcessors();
+        long seed = args.length > 4 ? Long.parseLong(args[4]) : System.nanoTime();
+        int[] chips = args.length > 5
+                ? Arrays.stream(args[5].split(",")).mapToInt(Integer::parseInt).toArray()
+                : BankrollSimulator.chips();
+        String[] systems = (args.length > 6 ? args[6] : "flat,martingale,count").split(",");
+        String strategy = args.length > 7 ? args[7] : "basic";
+        RuleSet rules = args.length > 8 ? RuleSet.parse(args[8]) : RuleSet.classic();
+
+        System.out.printf("Банкролл: %,d траекторий, %d потоков, seed %d, стратегия %s, правила %s, баланс %d%n",
+                trajectories, threads, seed, strategy, rules, BankrollSimulator.START_BALANCE);
+        for (String name : systems) {
+            int system = BankrollSimulator.systemByName(name);
+            for (int chip : chips) {
+                long start = System.nanoTime();
+                BankrollResult result = new BankrollSimulator(parseStrategy(strategy), rules, Shoe.DEFAULT_DECKS,
+                        Shoe.DEFAULT_PENETRATION, threads, chip, system, sessionRounds).run(trajectories, seed);
+                BankrollReport.print(System.out, chip, system, result, System.nanoTime() - start);
+            }
+        }
+    }
+
+    // -Dblackjack.ci=<полуширина> останавливает прогон, когда 95% интервал EV
+    // (в турнире — разностей EV) станет не шире заданного; 0 — играть все раунды
+    private static double targetHalfWidth() {
+        return Double.parseDouble(System.getProperty("blackjack.ci", "0"));
+    }
+
+    private static String targetNote(double target) {
+        return target > 0 ? String.format(", до точности ± %.5f", target) : "";
+    }
+
+    // Число — "стоит на N", иначе имя встроенной стратегии
+    private static Strategy parseStrategy(String arg) {
+        try {
+            return Strategy.standOn(Integer.parseInt(arg));
+        } catch (NumberFormatException e) {
+            return Strategies.byName(arg);
+        }
+    }
+
+    // sharded [раунды] [процессов] [шардов] [seed] [стратегия] [правила] — прогон в отдельных JVM
+    private static void runSharded(String[] args) {
+        long rounds = args.length > 1 ? Long.parseLong(args[1]) : 100_000_000L;
+        int cores = Runtime.getRuntime().availableProcessors();
+        int workers = args.length > 2 ? Integer.parseInt(args[2]) : Math.max(1, cores / 4);
+        int shards = args.length > 3 ? Integer.parseInt(args[3]) : workers * 4;
+        long seed = args.length > 4 ? Long.parseLong(args[4]) : System.nanoTime();
+        String strategy = args.length > 5 ? args[5] : "basic";
+        RuleSet rules = args.length > 6 ? RuleSet.parse(args[6]) : RuleSet.classic();
+        // Только проверка имени: воркеры получают стратегию по имени, ошибка должна быть до их запуска
+        parseStrategy(strategy);
+
+        List<String> command = List.of(Path.of(System.getProperty("java.home"), "bin", "java").toString(),
+                "-cp", System.getProperty("java.class.path"), Main.class.getName(), "shard-worker");
+        System.out.printf("Шардированный прогон: %,d раундов, %d процессов, %d шардов, seed %d, стратегия %s, правила %s%n",
+                rounds, workers, shards, seed, strategy, rules);
+        long start = System.nanoTime();
+        try {
+            SimulationResult result = new ShardCoordinator(command, workers, Math.max(1, cores / workers), strategy,
+                    rules, Shoe.DEFAULT_DECKS, Shoe.DEFAULT_PENETRATION, System.err)
+                    .run(rounds, shards, seed, SimulationReport.progress(System.err));
+            System.err.println();
+            SimulationReport.print(System.out, result, System.nanoTime() - start);
+        } catch (IOException e) {
+            System.err.println();
+            System.err.println("Шардированный прогон не удался: " + e.getMessage());
+            System.exit(1);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // shard-worker <хост> <порт> — рабочий процесс, запускается координатором
+    private static void runShardWorker(String[] args) {
+        try {
+            ShardWorker.serve(args[1], Integer.parseInt(args[2]), Main::parseStrategy);
+        } catch (IOException e) {
+            System.err.println("Рабочий процесс: потеряна связь с координатором: " + e.getMessage());
+            System.exit(1);
+        }
+    }
+
+    // tournament [раунды] [потоки] [seed] [стратегии через запятую] [правила] — первая стратегия базовая для сравнения
+    private static void runTournament(String[] args) {
+        long rounds = args.length > 1 ? Long.parseLong(args[1]) : 10_000_000L;
+        int threads = args.length > 2 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+        long seed = args.length > 3 ? Long.parseLong(args[3]) : System.nanoTime();
+        String[] names = (args.length > 4 ? args[4] : "basic,mimic-dealer,never-bust,random").split(",");
+        RuleSet rules = args.length > 5 ? RuleSet.parse(args[5]) : RuleSet.classic();
+        Strategy[] strategies = new Strategy[names.length];
+        for (int i = 0; i < names.length; i++) {
+            strategies[i] = parseStrategy(names[i]);
+        }
+
+        double target = targetHalfWidth();
+
+        System.out.printf("Турнир: до %,d раундов, %d потоков, seed %d, стратегии %s, правила %s%s%n",
+                rounds, threads, seed, String.join(", ", names), rules, targetNote(target));
+        long start = System.nanoTime();
+        TournamentResult result = new Tournament(strategies, rules, Shoe.DEFAULT_DECKS, Shoe.DEFAULT_PENETRATION, threads)
+                .runUntil(target, rounds, seed, SimulationReport.progress(System.err));
+        System.err.println();
+        TournamentReport.print(System.out, names, result, System.nanoTime() - start);
+    }
+
+    // audit <файл истории>
+    private static void runAudit(String file) {
+        try {
+            HistoryAudit.run(Path.of(file)).print(System.out);
+        } catch (IOException e) {
+            System.err.println("Не удалось прочитать историю: " + e.getMessage());
+            System.exit(1);
+        }
+    }
+
+    // analyze <измерения через запятую> <файл истории> [файл...] — группировка по столбцам в памяти
+    private static void runAnalyze(String[] args) {
+        String[] keys = args[1].split(",");
+        Dimension[] dimensions = new Dimension[keys.length];
+        for (int i = 0; i < keys.length; i++) {
+            dimensions[i] = Dimension.byKey(keys[i]);
+        }
+        List<Path> files = new ArrayList<>();
+        for (int i = 2; i < args.length; i++) {
+            files.add(Path.of(args[i]));
+        }
+        int threads = Runtime.getRuntime().availableProcessors();
+        try {
+            long start = System.nanoTime();
+            HandColumns columns = HandColumns.load(files, threads);
+            System.out.printf("Загружено %,d раундов из %d файлов за %.0f мс, столбцы %,d КБ%n", columns.rows(),
+                    files.size(), (System.nanoTime() - start) / 1e6, columns.bytes() / 1024);
+            start = System.nanoTime();
+            GroupedResult result = columns.groupBy(threads, dimensions);
+            AnalyticsReport.print(System.out, result, System.nanoTime() - start);
+        } catch (IOException e) {
+            System.err.println("Не удалось прочитать историю: " + e.getMessage());
+            System.exit(1);
+        }
+    }
+
+    // record <файл> [раунды] [seed] [ставка] [колод] [стратегия] [правила] — эталонный корпус без интерфейса
+    private static void runRecord(String[] args) {
+        long rounds = args.length > 2 ? Long.parseLong(args[2]) : 1_000_000L;
+        long seed = args.length > 3 ? Long.parseLong(args[3]) : System.nanoTime();
+        int bet = args.length > 4 ? Integer.parseInt(args[4]) : 10;
+        int decks = args.length > 5 ? Integer.parseInt(args[5]) : Shoe.DEFAULT_DECKS;
+        try {
+            long start = System.nanoTime();
+            Strategy strategy = parseStrategy(args.length > 6 ? args[6] : "17");
+            RuleSet rules = args.length > 7 ? RuleSet.parse(args[7]) : RuleSet.classic();
+            RoundRecorder.recordCorpus(Path.of(args[1]), rounds, seed, strategy, rules, bet, decks);
+            System.out.printf("Записано %,d раундов за %.2f с%n", rounds, (System.nanoTime() - start) / 1e9);
+        } catch (IOException e) {
+            System.err.println("Не удалось записать историю: " + e.getMessage());
+            System.exit(1);
+        }
+    }
+
+    // replay <файл> — повтор всех раундов через движок; ненулевой код выхода при расхождениях
+    private static void runReplay(String file) {
+        try {
+            long start = System.nanoTime();
+            ReplayDriver driver = ReplayDriver.run(Path.of(file));
+            driver.print(System.out, System.nanoTime() - start);
+            if (driver.mismatches() > 0) {
+                System.exit(2);
+            }
+        } catch (IOException e) {
+            System.err.println("Не удалось прочитать историю: " + e.getMessage());
+            System.exit(1);
+        }
+    }
+
+    // server [порт] [seed] [колод] [правила] [адрес] — многостольный сервер, стол на каждое
+    // соединение; по умолчанию только loopback, 0.0.0.0 — все интерфейсы
+    private static void runServer(String[] args) {
+        try {
+            GameServer.main(Arrays.copyOfRange(args, 1, args.length));
+        } catch (IOException e) {
+            System.err.println("Не удалось запустить сервер: " + e.getMessage());
+            System.exit(1);
+        }
+    }
+
+    // loadgen [хост] [порт] [соединений] [раздач на соединение]
+    private static void runLoad(String[] args) {
+        try {
+            LoadGenerator.main(Arrays.copyOfRange(args, 1, args.length));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
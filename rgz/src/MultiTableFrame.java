@@ -0,0 +1,73 @@
+import javax.swing.*;
+import java.awt.*;
+import blackjack.Strategy;
+import blackjack.metrics.GameMetrics;
+
+// Несколько независимых столов в одном окне для учебного зала. У каждого стола свои
+// руки, баланс, шуз и очередь анимаций, а атлас карт, фон, кадровый цикл и
+// ограничитель меток общие (TableContext). Столы раскладываются сеткой, размер
+// карт подбирается так, чтобы сетка поместилась на экран.
+final class MultiTableFrame extends JFrame {
+    static final int MIN_TABLES = 4;
+    static final int MAX_TABLES = 16;
+    // Строки текста и кнопки компактного стола, пиксели
+    private static final int CONTROLS_HEIGHT = 80;
+
+    private final BlackjackTable[] tables;
+    private OverlayPrompt rulesPrompt;
+
+    MultiTableFrame(int count) {
+        if (count < MIN_TABLES || count > MAX_TABLES) {
+            throw new IllegalArgumentException("Столов должно быть от " + MIN_TABLES + " до " + MAX_TABLES);
+        }
+        setTitle("Блэкджек: " + count + " столов");
+        setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
+
+        GameMetrics.get().register();
+        EdtProbe.start();
+        EdtWatchdog.install();
+
+        int columns = (int) Math.ceil(Math.sqrt(count));
+        int rows = (count + columns - 1) / columns;
+        Rectangle screen = GraphicsEnvironment.getLocalGraphicsEnvironment().getMaximumWindowBounds();
+        double scale = Math.min(1.0, Math.min(
+                (screen.height / (double) rows - CONTROLS_HEIGHT) / TableContext.COMPACT_HEIGHT,
+                screen.width / (double) columns / TableContext.COMPACT_WIDTH));
+        TableContext context = TableContext.compact(Math.max(0.3, scale));
+
+        JPanel grid = new JPanel(new GridLayout(rows, columns, 2, 2));
+        grid.setBackground(Color.DARK_GRAY);
+        tables = new BlackjackTable[count];
+        for (int i = 0; i < count; i++) {
+            // Проигравший стол начинает заново, выход из всего зала — только закрытием окна
+            tables[i] = new BlackjackTable(context, BlackjackTable.createEngine(i), this::showGameRules, null);
+            tables[i].openHistory(BlackjackTable.historyPath(i, true));
+            grid.add(tables[i]);
+        }
+        setContentPane(grid);
+
+        rulesPrompt = new OverlayPrompt().addButton("Закрыть", () -> rulesPrompt.setVisible(false));
+        rulesPrompt.setMessage(BlackjackTable.rulesText(BlackjackTable.createRules()));
+        getLayeredPane().add(rulesPrompt, JLayeredPane.PALETTE_LAYER);
+
+        setBounds(screen);
+        setVisible(true);
+    }
+
+    // Все столы сразу принимают ставки
+    void sitDown() {
+        for (BlackjackTable table : tables) {
+            table.sitDown();
+        }
+    }
+
+    void startAutoPlay(Strategy strategy, int bet) {
+        for (BlackjackTable table : tables) {
+            table.startAutoPlay(strategy, bet);
+        }
+    }
+
+    private void showGameRules() {
+        rulesPrompt.toggleCentered(480, 520);
+    }
+}
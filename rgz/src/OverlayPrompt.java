@@ -0,0 +1,56 @@
+import javax.swing.*;
+import java.awt.*;
+
+// Немодальная панель поверх стола: текст и кнопки. Заменяет JOptionPane там, где
+// вложенный цикл событий останавливал анимации и автоигру.
+final class OverlayPrompt extends JPanel {
+    private final JLabel message = new JLabel();
+    private final JPanel buttons = new JPanel(new FlowLayout(FlowLayout.CENTER, 8, 0));
+
+    OverlayPrompt() {
+        super(new BorderLayout(8, 8));
+        setBorder(BorderFactory.createCompoundBorder(
+                BorderFactory.createLineBorder(Color.DARK_GRAY),
+                BorderFactory.createEmptyBorder(10, 10, 10, 10)));
+        message.setVerticalAlignment(SwingConstants.TOP);
+        add(message, BorderLayout.CENTER);
+        add(buttons, BorderLayout.SOUTH);
+        setVisible(false);
+    }
+
+    // Кнопки добавляются один раз, при показе меняется только текст
+    OverlayPrompt addButton(String text, Runnable action) {
+        JButton button = new JButton(text);
+        button.addActionListener(e -> action.run());
+        buttons.add(button);
+        return this;
+    }
+
+    void setMessage(String text) {
+        message.setText(text);
+    }
+
+    // Панель по центру родителя с абсолютной раскладкой (или слоя окна)
+    void showCentered(int width, int height) {
+        Container parent = getParent();
+        int x = parent == null ? 0 : Math.max(0, (parent.getWidth() - width) / 2);
+        int y = parent == null ? 0 : Math.max(0, (parent.getHeight() - height) / 2);
+        setBounds(x, y, width, height);
+        setVisible(true);
+        // В JLayeredPane порядок задает слой, в обычной панели — поднимаем наверх
+        if (parent != null && !(parent instanceof JLayeredPane)) {
+            parent.setComponentZOrder(this, 0);
+        }
+        revalidate();
+        repaint();
+    }
+
+    // Кнопка "Правила": первый щелчок показывает панель, второй прячет
+    void toggleCentered(int width, int height) {
+        if (isVisible()) {
+            setVisible(false);
+        } else {
+            showCentered(width, height);
+        }
+    }
+}
@@ -0,0 +1,208 @@
+import blackjack.metrics.GameMetrics;
+
+import javax.swing.JComponent;
+import javax.swing.Timer;
+import java.awt.Container;
+import java.awt.Rectangle;
+import java.util.ArrayList;
+
+// Один кадровый таймер на все анимации окна, сколько бы столов в нем ни было.
+// Пока есть движущиеся карты или отложенные задачи, таймер тикает раз в FRAME_MS,
+// затем останавливается. За кадр на каждом столе перерисовывается только
+// объединение старых и новых границ его движущихся карт.
+final class RenderLoop {
+    static final int FRAME_MS = 16;
+    private static final long REPORT_INTERVAL_NANOS = 1_000_000_000L;
+
+    private final Timer timer;
+    private final ArrayList<CardMove> moves = new ArrayList<>();
+    private final ArrayList<CardMove> finished = new ArrayList<>();
+    private final ArrayList<Delayed> delayed = new ArrayList<>();
+    private final ArrayList<Delayed> due = new ArrayList<>();
+    // Отработавшие записи возвращаются сюда, поэтому раздача после разогрева не выделяет память
+    private final ArrayList<CardMove> freeMoves = new ArrayList<>();
+    private final ArrayList<Delayed> freeDelayed = new ArrayList<>();
+    // Поверхности, на которых уже двигались карты, и их грязные области за текущий кадр
+    private final ArrayList<Container> surfaces = new ArrayList<>();
+    private final ArrayList<Rectangle> dirty = new ArrayList<>();
+    private final boolean reportFrames = Boolean.getBoolean("blackjack.frameStats");
+
+    private long frames;
+    private long frameNanosTotal;
+    private long frameNanosMax;
+    private long lastReport = System.nanoTime();
+
+    private static final class CardMove {
+        JComponent card;
+        int fromX;
+        int fromY;
+        int toX;
+        int toY;
+        long start;
+        long duration;
+        double revealAt;
+        Runnable onReveal;
+        Runnable onComplete;
+    }
+
+    private static final class Delayed {
+        long dueAt;
+        Runnable task;
+    }
+
+    RenderLoop() {
+        this.timer = new Timer(FRAME_MS, e -> tick());
+        this.timer.setCoalesce(true);
+    }
+
+    // Плавно переносит карту; onReveal вызывается один раз при достижении revealAt
+    void move(JComponent card, int toX, int toY, long durationMs, double revealAt,
+              Runnable onReveal, Runnable onComplete) {
+        CardMove move = freeMoves.isEmpty() ? new CardMove() : freeMoves.remove(freeMoves.size() - 1);
+        move.card = card;
+        move.fromX = card.getX();
+        move.fromY = card.getY();
+        move.toX = toX;
+        move.toY = toY;
+        move.start = System.nanoTime();
+        move.duration = durationMs * 1_000_000L;
+        move.revealAt = revealAt;
+        move.onReveal = onReveal;
+        move.onComplete = onComplete;
+        moves.add(move);
+        ensureRunning();
+    }
+
+    // Заменяет отдельные javax.swing.Timer с задержкой между шагами раздачи
+    void schedule(long delayMs, Runnable task) {
+        Delayed entry = freeDelayed.isEmpty() ? new Delayed() : freeDelayed.remove(freeDelayed.size() - 1);
+        entry.dueAt = System.nanoTime() + delayMs * 1_000_000L;
+        entry.task = task;
+        delayed.add(entry);
+        ensureRunning();
+    }
+
+    boolean isIdle() {
+        return moves.isEmpty() && delayed.isEmpty();
+    }
+
+    long frames() {
+        return frames;
+    }
+
+    double averageFrameMillis() {
+        return frames == 0 ? 0 : frameNanosTotal / 1e6 / frames;
+    }
+
+    double maxFrameMillis() {
+        return frameNanosMax / 1e6;
+    }
+
+    private void ensureRunning() {
+        if (!timer.isRunning()) {
+            timer.start();
+        }
+    }
+
+    private void tick() {
+        long now = System.nanoTime();
+        for (int i = 0; i < dirty.size(); i++) {
+            dirty.get(i).setBounds(0, 0, 0, 0);
+        }
+
+        for (int i = moves.size() - 1; i >= 0; i--) {
+            CardMove move = moves.get(i);
+            JComponent card = move.card;
+            double progress = Math.min((double) (now - move.start) / move.duration, 1.0);
+            double eased = progress * (2 - progress);
+            int x = (int) (move.fromX + (move.toX - move.fromX) * eased);
+            int y = (int) (move.fromY + (move.toY - move.fromY) * eased);
+
+            Rectangle area = dirtyArea(card.getParent());
+            addDirty(area, card.getX(), card.getY(), card.getWidth(), card.getHeight());
+            card.setLocation(x, y);
+            addDirty(area, x, y, card.getWidth(), card.getHeight());
+
+            if (move.onReveal != null && progress >= move.revealAt) {
+                move.onReveal.run();
+                move.onReveal = null;
+            }
+            if (progress >= 1.0) {
+                moves.remove(i);
+                finished.add(move);
+            }
+        }
+
+        for (int i = delayed.size() - 1; i >= 0; i--) {
+            if (delayed.get(i).dueAt <= now) {
+                due.add(delayed.remove(i));
+            }
+        }
+
+        for (int i = 0; i < surfaces.size(); i++) {
+            Rectangle area = dirty.get(i);
+            if (!area.isEmpty()) {
+                surfaces.get(i).repaint(area.x, area.y, area.width, area.height);
+            }
+        }
+
+        // Обратные вызовы могут добавлять новые анимации, поэтому запускаем их после обхода
+        for (int i = 0; i < finished.size(); i++) {
+            CardMove move = finished.get(i);
+            Runnable onComplete = move.onComplete;
+            move.card = null;
+            move.onReveal = null;
+            move.onComplete = null;
+            freeMoves.add(move);
+            onComplete.run();
+        }
+        finished.clear();
+        for (int i = 0; i < due.size(); i++) {
+            Delayed entry = due.get(i);
+            Runnable task = entry.task;
+            entry.task = null;
+            freeDelayed.add(entry);
+            task.run();
+        }
+        due.clear();
+
+        if (isIdle()) {
+            timer.stop();
+        }
+        recordFrame(now, System.nanoTime() - now);
+    }
+
+    // Столов в окне не больше нескольких десятков, линейный поиск дешевле хэша
+    private Rectangle dirtyArea(Container surface) {
+        for (int i = 0; i < surfaces.size(); i++) {
+            if (surfaces.get(i) == surface) {
+                return dirty.get(i);
+            }
+        }
+        surfaces.add(surface);
+        Rectangle area = new Rectangle();
+        dirty.add(area);
+        return area;
+    }
+
+    private static void addDirty(Rectangle area, int x, int y, int width, int height) {
+        if (area.isEmpty()) {
+            area.setBounds(x, y, width, height);
+        } else {
+            area.add(x, y);
+            area.add(x + width, y + height);
+        }
+    }
+
+    private void recordFrame(long now, long elapsed) {
+        frames++;
+        frameNanosTotal += elapsed;
+        frameNanosMax = Math.max(frameNanosMax, elapsed);
+        GameMetrics.get().recordFrame(elapsed);
+        if (reportFrames && now - lastReport >= REPORT_INTERVAL_NANOS) {
+            System.out.printf("Кадров: %d, среднее время кадра %.3f мс, максимум %.3f мс%n",
+                    frames, averageFrameMillis(), maxFrameMillis());
+            lastReport = now;
+        }
+    }
+}
@@ -0,0 +1,18 @@
+// Состояния стола. Какие кнопки и панели доступны, определяется только состоянием,
+// переходы идут через BlackjackTable.setState
+enum RoundState {
+    // Стартовый экран, игрок еще не сел за стол
+    SEATING,
+    // Открыт выбор ставки
+    BETTING,
+    // Раздаются первые четыре карты
+    DEALING,
+    // Ход игрока: взять, хватит, удвоить, сдаться
+    PLAYER_TURN,
+    // Карты дилера открыты, дилер добирает
+    DEALER_TURN,
+    // Раунд рассчитан, можно начать следующий
+    SETTLED,
+    // Фишки закончились
+    GAME_OVER
+}
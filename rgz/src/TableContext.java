@@ -0,0 +1,59 @@
+import java.util.concurrent.CompletableFuture;
+
+// Общее для всех столов одного окна: атлас карт одного размера, кадровый цикл,
+// ограничитель меток и раскладка. Столы не заводят своих картинок и таймеров,
+// поэтому стоимость отрисовки зависит от числа карт на экране, а не столов.
+final class TableContext {
+    // Место под руки: отступы, две строки карт, пять карт в строке — в единицах стандартной карты
+    static final int COMPACT_HEIGHT = 280;
+    static final int COMPACT_WIDTH = 490;
+
+    final CompletableFuture<CardAtlas> cardAtlas;
+    final RenderLoop renderLoop = new RenderLoop();
+    final LabelThrottle labels = new LabelThrottle(250);
+    final boolean compact;
+    final int cardWidth;
+    final int cardHeight;
+    final int overlap;
+    final int deckX;
+    final int deckY;
+    final int handX;
+    final int dealerY;
+    final int playerY;
+    final int betY;
+
+    // Раскладка одиночного стола 800x600
+    static TableContext classic() {
+        return new TableContext(1.0, false);
+    }
+
+    // Уменьшенный стол для нескольких столов в окне: карты масштаба scale
+    static TableContext compact(double scale) {
+        return new TableContext(scale, true);
+    }
+
+    private TableContext(double scale, boolean compact) {
+        this.compact = compact;
+        cardWidth = (int) Math.round(CardAtlas.CARD_WIDTH * scale);
+        cardHeight = (int) Math.round(CardAtlas.CARD_HEIGHT * scale);
+        overlap = (int) Math.round(20 * scale);
+        if (compact) {
+            int margin = (int) Math.round(10 * scale);
+            deckX = margin;
+            deckY = margin;
+            handX = margin + cardWidth + 2 * margin;
+            dealerY = margin;
+            playerY = dealerY + cardHeight + 2 * margin;
+            betY = playerY;
+        } else {
+            deckX = 50;
+            deckY = 50;
+            handX = 100;
+            dealerY = 100;
+            playerY = 400;
+            betY = 240;
+        }
+        // Атласы кэшируются по размеру: все столы окна получают один и тот же
+        cardAtlas = CompletableFuture.supplyAsync(() -> CardAtlas.forSize(cardWidth, cardHeight));
+    }
+}
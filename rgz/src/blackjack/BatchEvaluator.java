@@ -0,0 +1,98 @@
+package blackjack;
+
+// Пакетная оценка рук для массовых прогонов и аналитики. Ранги карт хранятся
+// столбцами по байту: ranks[slot * count + hand] — карта номер slot руки hand
+// (Cards.rank) или NO_CARD, если карт в руке меньше. Результат pack — руки в
+// формате Hands, settle — исходы и выигрыш в десятых ставки по правилам RuleSet.
+//
+// get() возвращает векторную реализацию (jdk.incubator.vector), если модуль
+// подключен (--add-modules jdk.incubator.vector), иначе скалярную. Результаты
+// обеих реализаций совпадают.
+public abstract class BatchEvaluator {
+    public static final byte NO_CARD = -1;
+    // Ставка в десятых, как в MonteCarloSimulator: выплаты 3:2 и 6:5 целые
+    public static final int BET_TENTHS = 10;
+
+    private static final BatchEvaluator SCALAR = new Scalar();
+
+    // Векторный класс загружается по имени: без модуля он не слинкуется
+    private static final class Holder {
+        static final BatchEvaluator INSTANCE = load();
+
+        private static BatchEvaluator load() {
+            if (ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent()) {
+                try {
+                    return (BatchEvaluator) Class.forName("blackjack.VectorBatchEvaluator")
+                            .getDeclaredConstructor().newInstance();
+                } catch (ReflectiveOperationException | LinkageError e) {
+                    System.err.println("Векторная оценка рук недоступна: " + e);
+                }
+            }
+            return SCALAR;
+        }
+    }
+
+    public static BatchEvaluator get() {
+        return Holder.INSTANCE;
+    }
+
+    public static BatchEvaluator scalar() {
+        return SCALAR;
+    }
+
+    public abstract String name();
+
+    // hands[hand] — рука из slots столбцов рангов
+    public abstract void pack(byte[] ranks, int slots, int count, int[] hands);
+
+    // Исход (RoundEngine.OUTCOME_*) и выигрыш игрока за вычетом ставки BET_TENTHS.
+    // Блэкджек — любые две карты на 21, сдача и удвоение учитываются вызывающим.
+    public abstract void settle(RuleSet rules, int[] playerHands, int[] dealerHands, int count,
+                                int[] outcomes, int[] netTenths);
+
+    // Выигрыш по исходу для ставки BET_TENTHS — общая таблица для обеих реализаций
+    static int[] netTable(RuleSet rules) {
+        int[] net = new int[RoundEngine.OUTCOME_COUNT];
+        for (int outcome = 0; outcome < net.length; outcome++) {
+            net[outcome] = rules.payout(outcome, BET_TENTHS) - BET_TENTHS;
+        }
+        return net;
+    }
+
+    static int packScalar(byte[] ranks, int slots, int count, int hand) {
+        int packed = Hands.EMPTY;
+        for (int slot = 0; slot < slots; slot++) {
+            int rank = ranks[slot * count + hand];
+            if (rank != NO_CARD) {
+                packed = Hands.add(packed, Cards.of(rank, 0));
+            }
+        }
+        return packed;
+    }
+
+    private static final class Scalar extends BatchEvaluator {
+        @Override
+        public String name() {
+            return "scalar";
+        }
+
+        @Override
+        public void pack(byte[] ranks, int slots, int count, int[] hands) {
+            for (int hand = 0; hand < count; hand++) {
+                hands[hand] = packScalar(ranks, slots, count, hand);
+            }
+        }
+
+        @Override
+        public void settle(RuleSet rules, int[] playerHands, int[] dealerHands, int count,
+                           int[] outcomes, int[] netTenths) {
+            int[] net = netTable(rules);
+            for (int hand = 0; hand < count; hand++) {
+                int player = playerHands[hand];
+                int outcome = rules.outcome(player, Hands.isBlackjack(player), dealerHands[hand]);
+                outcomes[hand] = outcome;
+                netTenths[hand] = net[outcome];
+            }
+        }
+    }
+}
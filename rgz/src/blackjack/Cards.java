@@ -0,0 +1,56 @@
+package blackjack;
+
+// Карта кодируется одним int: card = rank * 4 + suit, где rank 0..12 соответствует "2".."A",
+// а suit 0..3 — "H", "D", "C", "S" (тот же порядок, что и в исходном createDeck).
+public final class Cards {
+    public static final int DECK_SIZE = 52;
+    public static final int RANKS = 13;
+    public static final int SUITS = 4;
+    public static final int ACE = 12;
+
+    private static final String[] VALUES = {"2", "3", "4", "5", "6", "7", "8", "9", "10", "J", "Q", "K", "A"};
+    private static final String[] SUIT_NAMES = {"H", "D", "C", "S"};
+    private static final int[] POINTS = {2, 3, 4, 5, 6, 7, 8, 9, 10, 10, 10, 10, 11};
+    private static final int[] HI_LO = {1, 1, 1, 1, 1, 0, 0, 0, -1, -1, -1, -1, -1};
+
+    private Cards() {
+    }
+
+    public static int of(int rank, int suit) {
+        return rank * SUITS + suit;
+    }
+
+    public static int rank(int card) {
+        return card >> 2;
+    }
+
+    public static int suit(int card) {
+        return card & 3;
+    }
+
+    public static boolean isAce(int card) {
+        return rank(card) == ACE;
+    }
+
+    // Очки карты, туз считается за 11 (как в исходной таблице points)
+    public static int points(int card) {
+        return POINTS[rank(card)];
+    }
+
+    // Вес карты в счете Hi-Lo: 2-6 — +1, 7-9 — 0, десятки и тузы — -1
+    public static int hiLo(int card) {
+        return HI_LO[rank(card)];
+    }
+
+    public static String value(int card) {
+        return VALUES[rank(card)];
+    }
+
+    public static String suitName(int card) {
+        return SUIT_NAMES[suit(card)];
+    }
+
+    public static String imagePath(int card) {
+        return "/cards/" + value(card) + suitName(card) + ".png";
+    }
+}
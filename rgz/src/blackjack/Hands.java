@@ -0,0 +1,57 @@
+package blackjack;
+
+// Рука упакована в один int:
+// биты 0-7  — сумма очков, где каждый туз считается за 1;
+// биты 8-15 — количество карт;
+// бит 16    — в руке есть хотя бы один туз.
+// Добавление карты и подсчет очков — O(1) и без выделения памяти.
+public final class Hands {
+    public static final int EMPTY = 0;
+
+    static final int HARD_MASK = 0xFF;
+    static final int COUNT_SHIFT = 8;
+    static final int COUNT_MASK = 0xFF;
+    static final int ACE_FLAG = 1 << 16;
+
+    private Hands() {
+    }
+
+    public static int add(int hand, int card) {
+        int points = Cards.isAce(card) ? 1 : Cards.points(card);
+        int result = hand + points + (1 << COUNT_SHIFT);
+        if (Cards.isAce(card)) {
+            result |= ACE_FLAG;
+        }
+        return result;
+    }
+
+    public static int hardTotal(int hand) {
+        return hand & HARD_MASK;
+    }
+
+    public static int size(int hand) {
+        return (hand >>> COUNT_SHIFT) & COUNT_MASK;
+    }
+
+    public static boolean hasAce(int hand) {
+        return (hand & ACE_FLAG) != 0;
+    }
+
+    // Та же логика, что в calculateScore: тузы считаются за 11, пока рука не переберет
+    public static int score(int hand) {
+        int hard = hardTotal(hand);
+        return hasAce(hand) && hard <= 11 ? hard + 10 : hard;
+    }
+
+    public static boolean isSoft(int hand) {
+        return hasAce(hand) && hardTotal(hand) <= 11;
+    }
+
+    public static boolean isBust(int hand) {
+        return hardTotal(hand) > 21;
+    }
+
+    public static boolean isBlackjack(int hand) {
+        return size(hand) == 2 && score(hand) == 21;
+    }
+}
@@ -0,0 +1,378 @@
+package blackjack;
+
+// Правила одного раунда без Swing и таймеров. Состояние — только примитивы,
+// поэтому раунд не выделяет память после создания движка. Решения дилера,
+// исход и выплата берутся из таблиц RuleSet.
+//
+// После сплита рук несколько: dealPlayer, playerHand и удвоение относятся к
+// активной руке, nextHand переходит к следующей. Без сплита рука одна (индекс 0).
+public final class RoundEngine {
+    public static final int OUTCOME_PLAYER_BUST = 0;
+    public static final int OUTCOME_DEALER_BUST = 1;
+    public static final int OUTCOME_BLACKJACK = 2;
+    public static final int OUTCOME_WIN = 3;
+    public static final int OUTCOME_LOSS = 4;
+    public static final int OUTCOME_PUSH = 5;
+    public static final int OUTCOME_SURRENDER = 6;
+    public static final int OUTCOME_COUNT = 7;
+
+    public static final int DEALER_STAND = 17;
+
+    private final Shoe shoe;
+    private final RuleSet rules;
+    private final int[] hands = new int[RuleSet.MAX_HANDS];
+    // Первые две карты каждой руки — для проверки пары и разделения
+    private final int[] firstCards = new int[RuleSet.MAX_HANDS];
+    private final int[] secondCards = new int[RuleSet.MAX_HANDS];
+    private int handCount;
+    private int activeHand;
+    private int doubledMask;
+    private boolean splitAces;
+    private boolean surrendered;
+    private int dealerHand;
+    private int dealerUpcard;
+    private int dealerHoleCard;
+    private boolean holeCardHidden;
+    private final ShoeState playerView = new PlayerView();
+
+    public RoundEngine(Shoe shoe) {
+        this(shoe, RuleSet.classic());
+    }
+
+    public RoundEngine(Shoe shoe, RuleSet rules) {
+        this.shoe = shoe;
+        this.rules = rules;
+    }
+
+    private void resetHands() {
+        hands[0] = Hands.EMPTY;
+        handCount = 1;
+        activeHand = 0;
+        doubledMask = 0;
+        splitAces = false;
+        surrendered = false;
+        dealerHand = Hands.EMPTY;
+        holeCardHidden = false;
+    }
+
+    // Шуз перемешивается только между раундами, когда вышла подрезная карта
+    public boolean startRound() {
+        resetHands();
+        if (shoe.cutCardReached()) {
+            shoe.shuffle();
+            return true;
+        }
+        return false;
+    }
+
+    // Начало раунда с точно заданного состояния шуза — для повтора раунда из истории
+    public void startRoundAt(long shuffleSeed, int position) {
+        resetHands();
+        if (shoe.shuffleSeed() != shuffleSeed) {
+            shoe.shuffle(shuffleSeed);
+        }
+        shoe.seek(position);
+    }
+
+    public int drawCard() {
+        return shoe.draw();
+    }
+
+    public int dealPlayer() {
+        int card = drawCard();
+        int hand = hands[activeHand];
+        if (hand == Hands.EMPTY) {
+            firstCards[activeHand] = card;
+        } else if (Hands.size(hand) == 1) {
+            secondCards[activeHand] = card;
+        }
+        hands[activeHand] = Hands.add(hand, card);
+        return card;
+    }
+
+    public int dealDealer() {
+        int card = drawCard();
+        if (dealerHand == Hands.EMPTY) {
+            dealerUpcard = card;
+        } else if (Hands.size(dealerHand) == 1) {
+            dealerHoleCard = card;
+            holeCardHidden = true;
+        } else {
+            holeCardHidden = false;
+        }
+        dealerHand = Hands.add(dealerHand, card);
+        return card;
+    }
+
+    // Порядок раздачи из dealInitialCards: игрок, дилер, игрок, дилер (скрытая)
+    public void dealInitial() {
+        dealPlayer();
+        dealDealer();
+        dealPlayer();
+        dealDealer();
+    }
+
+    public boolean dealerMustHit() {
+        return rules.dealerHits(dealerHand);
+    }
+
+    // Дилер открывает закрытую карту перед своим ходом
+    public void revealHoleCard() {
+        holeCardHidden = false;
+    }
+
+    public void playDealer() {
+        revealHoleCard();
+        while (dealerMustHit()) {
+            dealDealer();
+        }
+    }
+
+    public boolean canDouble() {
+        return rules.canDouble(hands[activeHand]) && !splitAces && (handCount == 1 || rules.doubleAfterSplit());
+    }
+
+    // Удвоение ставки активной руки: ровно одна карта, после чего рука стоит
+    public int doubleDown() {
+        doubledMask |= 1 << activeHand;
+        return dealPlayer();
+    }
+
+    // Поздняя сдача — только первым решением, до любых других действий. Дилер проверяет
+    // блэкджек раньше: против него сдача не спасает половину ставки (см. outcome)
+    public boolean canSurrender() {
+        return rules.surrender() && handCount == 1 && Hands.size(hands[0]) == 2 && doubledMask == 0;
+    }
+
+    public void surrender() {
+        surrendered = true;
+    }
+
+    // Пара по очкам (две десятки любого достоинства тоже пара); тузы после сплита не делятся
+    public boolean canSplit() {
+        int hand = hands[activeHand];
+        return handCount < rules.maxHands() && Hands.size(hand) == 2 && !splitAces
+                && Cards.points(firstCards[activeHand]) == Cards.points(secondCards[activeHand]);
+    }
+
+    // Вторая карта уходит в новую руку, активная рука сразу получает новую карту
+    public void split() {
+        int second = secondCards[activeHand];
+        int newHand = handCount++;
+        hands[newHand] = Hands.add(Hands.EMPTY, second);
+        firstCards[newHand] = second;
+        hands[activeHand] = Hands.add(Hands.EMPTY, firstCards[activeHand]);
+        splitAces = Cards.isAce(second);
+        dealPlayer();
+    }
+
+    // Переход к следующей руке после сплита; false — рук больше нет
+    public boolean nextHand() {
+        if (activeHand + 1 >= handCount) {
+            return false;
+        }
+        activeHand++;
+        dealPlayer();
+        return true;
+    }
+
+    // Полный раунд без интерфейса: решения игрока принимает стратегия
+    public int playRound(Strategy strategy) {
+        startRound();
+        return playHand(strategy);
+    }
+
+    // Раунд после startRound/startRoundAt — так несколько стратегий играют одни и те же карты.
+    // Возвращает исход первой руки; итог по всем рукам — settle и wagered.
+    public int playHand(Strategy strategy) {
+        dealInitial();
+        if (canSurrender() && strategy.shouldSurrender(this)) {
+            surrender();
+            return outcome();
+        }
+        boolean dealerPlays = false;
+        do {
+            while (canSplit() && strategy.shouldSplit(this)) {
+                split();
+            }
+            if (!splitAces) {
+                if (canDouble() && strategy.shouldDouble(this)) {
+                    doubleDown();
+                } else {
+                    while (!Hands.isBust(hands[activeHand]) && strategy.shouldHit(this)) {
+                        dealPlayer();
+                    }
+                }
+            }
+            dealerPlays |= !Hands.isBust(hands[activeHand]);
+        } while (nextHand());
+        activeHand = 0;
+        if (dealerPlays) {
+            playDealer();
+        }
+        return outcome();
+    }
+
+    public int outcome() {
+        return outcome(0);
+    }
+
+    // После сплита 21 из двух карт — не блэкджек
+    public int outcome(int hand) {
+        if (surrendered) {
+            return Hands.isBlackjack(dealerHand) ? OUTCOME_LOSS : OUTCOME_SURRENDER;
+        }
+        int playerHand = hands[hand];
+        return rules.outcome(playerHand, handCount == 1 && Hands.isBlackjack(playerHand), dealerHand);
+    }
+
+    // Сколько вернется игроку по всем рукам при ставке bet на руку
+    public int settle(int bet) {
+        int total = 0;
+        for (int hand = 0; hand < handCount; hand++) {
+            total += rules.payout(outcome(hand), wager(hand, bet));
+        }
+        return total;
+    }
+
+    // Сколько всего поставлено с учетом удвоений и сплитов
+    public int wagered(int bet) {
+        int total = 0;
+        for (int hand = 0; hand < handCount; hand++) {
+            total += wager(hand, bet);
+        }
+        return total;
+    }
+
+    private int wager(int hand, int bet) {
+        return (doubledMask & (1 << hand)) != 0 ? bet * 2 : bet;
+    }
+
+    // Выплата по классическим правилам, если ставка уже списана с баланса
+    public static int payout(int outcome, int bet) {
+        return RuleSet.classic().payout(outcome, bet);
+    }
+
+    public RuleSet rules() {
+        return rules;
+    }
+
+    public int handCount() {
+        return handCount;
+    }
+
+    public int activeHand() {
+        return activeHand;
+    }
+
+    public boolean isDoubled(int hand) {
+        return (doubledMask & (1 << hand)) != 0;
+    }
+
+    public boolean isSurrendered() {
+        return surrendered;
+    }
+
+    public int playerHand() {
+        return hands[activeHand];
+    }
+
+    public int playerHand(int hand) {
+        return hands[hand];
+    }
+
+    // Очки пары на активной руке (туз — 11), для решения о сплите
+    public int pairPoints() {
+        return Cards.points(firstCards[activeHand]);
+    }
+
+    public int dealerHand() {
+        return dealerHand;
+    }
+
+    public int playerScore() {
+        return Hands.score(hands[activeHand]);
+    }
+
+    public Shoe shoe() {
+        return shoe;
+    }
+
+    public int dealerUpcard() {
+        return dealerUpcard;
+    }
+
+    // Шуз глазами игрока: пока закрытая карта дилера не открыта, она считается
+    // невышедшей. Это видят стратегии; engine.shoe() учитывает все вышедшие карты
+    public ShoeState playerView() {
+        return playerView;
+    }
+
+    public boolean isHoleCardHidden() {
+        return holeCardHidden;
+    }
+
+    public int dealerHoleCard() {
+        return dealerHoleCard;
+    }
+
+    public int dealerScore() {
+        return Hands.score(dealerHand);
+    }
+
+    private final class PlayerView implements ShoeState {
+        @Override
+        public int decks() {
+            return shoe.decks();
+        }
+
+        @Override
+        public int size() {
+            return shoe.size();
+        }
+
+        @Override
+        public int remaining() {
+            return holeCardHidden ? shoe.remaining() + 1 : shoe.remaining();
+        }
+
+        @Override
+        public int position() {
+            return shoe.position();
+        }
+
+        @Override
+        public long shuffleSeed() {
+            return shoe.shuffleSeed();
+        }
+
+        @Override
+        public double penetration() {
+            return shoe.penetration();
+        }
+
+        @Override
+        public int cutCard() {
+            return shoe.cutCard();
+        }
+
+        @Override
+        public int remainingOfRank(int rank) {
+            int count = shoe.remainingOfRank(rank);
+            return holeCardHidden && Cards.rank(dealerHoleCard) == rank ? count + 1 : count;
+        }
+
+        @Override
+        public int runningCount() {
+            return holeCardHidden ? shoe.runningCount() - Cards.hiLo(dealerHoleCard) : shoe.runningCount();
+        }
+
+        @Override
+        public void countRemaining(int[] byRank) {
+            shoe.countRemaining(byRank);
+            if (holeCardHidden) {
+                byRank[Cards.rank(dealerHoleCard)]++;
+            }
+        }
+    }
+}
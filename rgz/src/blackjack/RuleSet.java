@@ -0,0 +1,267 @@
+package blackjack;
+
+// Правила стола. Объект неизменяемый; при создании правила компилируются в таблицы,
+// так что в раунде решения дилера, исход и выплата — это чтение из массива, а не
+// цепочка условий. classic() — правила исходной игры (дилер стоит на всех 17,
+// блэкджек 3:2, без удвоения, сплита и сдачи).
+//
+// Текстовая форма для командной строки — список через запятую, например
+// "h17,double=any,das,split=4,surrender,bj=6:5".
+public final class RuleSet {
+    public static final int DOUBLE_NONE = 0;
+    public static final int DOUBLE_ANY = 1;
+    public static final int DOUBLE_9_TO_11 = 2;
+    public static final int DOUBLE_10_TO_11 = 3;
+
+    public static final int BLACKJACK_3_TO_2 = 0;
+    public static final int BLACKJACK_6_TO_5 = 1;
+    public static final int BLACKJACK_1_TO_1 = 2;
+
+    public static final int MAX_HANDS = 4;
+
+    private static final String[] DOUBLE_NAMES = {"none", "any", "9-11", "10-11"};
+    private static final String[] BLACKJACK_NAMES = {"3:2", "6:5", "1:1"};
+    // Сколько возвращается игроку за блэкджек, в десятых ставки
+    private static final int[] BLACKJACK_RETURN = {25, 22, 20};
+
+    private static final RuleSet CLASSIC = new RuleSet(false, DOUBLE_NONE, false, 1, false, BLACKJACK_3_TO_2);
+
+    // Очки руки ограничиваются BUST_SCORE, все переборы попадают в одну ячейку
+    private static final int BUST_SCORE = 22;
+    private static final int SCORES = BUST_SCORE + 1;
+    // Жесткая сумма (туз за 1) не больше 30: 20 + 10 — максимум до остановки
+    private static final int HARD_TOTALS = 32;
+
+    private final boolean dealerHitsSoft17;
+    private final int doubleRule;
+    private final boolean doubleAfterSplit;
+    private final int maxHands;
+    private final boolean surrender;
+    private final int blackjackPayout;
+
+    // dealerHits[hasAce * HARD_TOTALS + hardTotal]
+    private final boolean[] dealerHits = new boolean[2 * HARD_TOTALS];
+    // outcomes[((playerBlackjack * 2 + dealerBlackjack) * SCORES + playerScore) * SCORES + dealerScore]
+    private final byte[] outcomes = new byte[4 * SCORES * SCORES];
+    // Возврат в десятых ставки по исходу
+    private final int[] returnTenths = new int[RoundEngine.OUTCOME_COUNT];
+    // Разрешено ли удвоение на двух картах с данной жесткой суммой и флагом туза
+    private final boolean[] doubleAllowed = new boolean[2 * HARD_TOTALS];
+
+    private RuleSet(boolean dealerHitsSoft17, int doubleRule, boolean doubleAfterSplit, int maxHands,
+                    boolean surrender, int blackjackPayout) {
+        if (doubleRule < DOUBLE_NONE || doubleRule > DOUBLE_10_TO_11) {
+            throw new IllegalArgumentException("Неизвестное правило удвоения: " + doubleRule);
+        }
+        if (maxHands < 1 || maxHands > MAX_HANDS) {
+            throw new IllegalArgumentException("Число рук после сплита должно быть от 1 до " + MAX_HANDS + ": " + maxHands);
+        }
+        if (blackjackPayout < BLACKJACK_3_TO_2 || blackjackPayout > BLACKJACK_1_TO_1) {
+            throw new IllegalArgumentException("Неизвестная выплата за блэкджек: " + blackjackPayout);
+        }
+        this.dealerHitsSoft17 = dealerHitsSoft17;
+        this.doubleRule = doubleRule;
+        this.doubleAfterSplit = doubleAfterSplit;
+        this.maxHands = maxHands;
+        this.surrender = surrender;
+        this.blackjackPayout = blackjackPayout;
+        compile();
+    }
+
+    public static RuleSet classic() {
+        return CLASSIC;
+    }
+
+    private void compile() {
+        for (int ace = 0; ace < 2; ace++) {
+            for (int hard = 0; hard < HARD_TOTALS; hard++) {
+                boolean soft = ace == 1 && hard <= 11;
+                int score = soft ? hard + 10 : hard;
+                dealerHits[ace * HARD_TOTALS + hard] = score < RoundEngine.DEALER_STAND
+                        || (dealerHitsSoft17 && soft && score == RoundEngine.DEALER_STAND);
+                doubleAllowed[ace * HARD_TOTALS + hard] = doubleRule == DOUBLE_ANY
+                        || (doubleRule == DOUBLE_9_TO_11 && !soft && hard >= 9 && hard <= 11)
+                        || (doubleRule == DOUBLE_10_TO_11 && !soft && hard >= 10 && hard <= 11);
+            }
+        }
+        // Тот же порядок проверок, что и в исходном determineWinner
+        for (int blackjacks = 0; blackjacks < 4; blackjacks++) {
+            boolean playerBlackjack = blackjacks >= 2;
+            boolean dealerBlackjack = (blackjacks & 1) != 0;
+            for (int player = 0; player < SCORES; player++) {
+                for (int dealer = 0; dealer < SCORES; dealer++) {
+                    int outcome;
+                    if (player > 21) {
+                        outcome = RoundEngine.OUTCOME_PLAYER_BUST;
+                    } else if (dealer > 21) {
+                        outcome = RoundEngine.OUTCOME_DEALER_BUST;
+                    } else if (playerBlackjack && !dealerBlackjack) {
+                        outcome = RoundEngine.OUTCOME_BLACKJACK;
+                    } else if (player > dealer) {
+                        outcome = RoundEngine.OUTCOME_WIN;
+                    } else if (dealer > player) {
+                        outcome = RoundEngine.OUTCOME_LOSS;
+                    } else {
+                        outcome = RoundEngine.OUTCOME_PUSH;
+                    }
+                    outcomes[(blackjacks * SCORES + player) * SCORES + dealer] = (byte) outcome;
+                }
+            }
+        }
+        returnTenths[RoundEngine.OUTCOME_PLAYER_BUST] = 0;
+        returnTenths[RoundEngine.OUTCOME_DEALER_BUST] = 20;
+        returnTenths[RoundEngine.OUTCOME_BLACKJACK] = BLACKJACK_RETURN[blackjackPayout];
+        returnTenths[RoundEngine.OUTCOME_WIN] = 20;
+        returnTenths[RoundEngine.OUTCOME_LOSS] = 0;
+        returnTenths[RoundEngine.OUTCOME_PUSH] = 10;
+        returnTenths[RoundEngine.OUTCOME_SURRENDER] = 5;
+    }
+
+    public boolean dealerHits(int dealerHand) {
+        return dealerHits[(Hands.hasAce(dealerHand) ? HARD_TOTALS : 0) + Math.min(Hands.hardTotal(dealerHand), HARD_TOTALS - 1)];
+    }
+
+    public int outcome(int playerHand, boolean playerBlackjack, int dealerHand) {
+        int blackjacks = (playerBlackjack ? 2 : 0) + (Hands.isBlackjack(dealerHand) ? 1 : 0);
+        int player = Math.min(Hands.score(playerHand), BUST_SCORE);
+        int dealer = Math.min(Hands.score(dealerHand), BUST_SCORE);
+        return outcomes[(blackjacks * SCORES + player) * SCORES + dealer];
+    }
+
+    // Сколько возвращается игроку, если ставка уже списана с баланса
+    public int payout(int outcome, int bet) {
+        return (int) ((long) bet * returnTenths[outcome] / 10);
+    }
+
+    public boolean canDouble(int playerHand) {
+        return Hands.size(playerHand) == 2
+                && doubleAllowed[(Hands.hasAce(playerHand) ? HARD_TOTALS : 0) + Hands.hardTotal(playerHand)];
+    }
+
+    public boolean dealerHitsSoft17() {
+        return dealerHitsSoft17;
+    }
+
+    public int doubleRule() {
+        return doubleRule;
+    }
+
+    public boolean doubleAfterSplit() {
+        return doubleAfterSplit;
+    }
+
+    public int maxHands() {
+        return maxHands;
+    }
+
+    public boolean surrender() {
+        return surrender;
+    }
+
+    public int blackjackPayout() {
+        return blackjackPayout;
+    }
+
+    public RuleSet withDealerHitsSoft17(boolean value) {
+        return new RuleSet(value, doubleRule, doubleAfterSplit, maxHands, surrender, blackjackPayout);
+    }
+
+    public RuleSet withDouble(int value) {
+        return new RuleSet(dealerHitsSoft17, value, doubleAfterSplit, maxHands, surrender, blackjackPayout);
+    }
+
+    public RuleSet withDoubleAfterSplit(boolean value) {
+        return new RuleSet(dealerHitsSoft17, doubleRule, value, maxHands, surrender, blackjackPayout);
+    }
+
+    public RuleSet withMaxHands(int value) {
+        return new RuleSet(dealerHitsSoft17, doubleRule, doubleAfterSplit, value, surrender, blackjackPayout);
+    }
+
+    public RuleSet withSurrender(boolean value) {
+        return new RuleSet(dealerHitsSoft17, doubleRule, doubleAfterSplit, maxHands, value, blackjackPayout);
+    }
+
+    public RuleSet withBlackjackPayout(int value) {
+        return new RuleSet(dealerHitsSoft17, doubleRule, doubleAfterSplit, maxHands, surrender, value);
+    }
+
+    // Компактный код для заголовка истории раздач; 0 — classic()
+    public int encode() {
+        return (dealerHitsSoft17 ? 1 : 0)
+                | doubleRule << 1
+                | (doubleAfterSplit ? 1 : 0) << 3
+                | (maxHands - 1) << 4
+                | (surrender ? 1 : 0) << 7
+                | blackjackPayout << 8;
+    }
+
+    public static RuleSet decode(int code) {
+        return new RuleSet((code & 1) != 0, (code >>> 1) & 3, (code >>> 3 & 1) != 0,
+                ((code >>> 4) & 7) + 1, (code >>> 7 & 1) != 0, (code >>> 8) & 0xF);
+    }
+
+    public static RuleSet parse(String text) {
+        RuleSet rules = CLASSIC;
+        for (String token : text.split(",")) {
+            String option = token.trim();
+            if (option.isEmpty() || option.equals("classic") || option.equals("s17")) {
+                continue;
+            }
+            if (option.equals("h17")) {
+                rules = rules.withDealerHitsSoft17(true);
+            } else if (option.equals("das")) {
+                rules = rules.withDoubleAfterSplit(true);
+            } else if (option.equals("surrender")) {
+                rules = rules.withSurrender(true);
+            } else if (option.startsWith("double=")) {
+                rules = rules.withDouble(indexOf(DOUBLE_NAMES, option.substring(7), option));
+            } else if (option.startsWith("split=")) {
+                try {
+                    rules = rules.withMaxHands(Integer.parseInt(option.substring(6)));
+                } catch (NumberFormatException e) {
+                    throw new IllegalArgumentException("Некорректное правило: " + option);
+                }
+            } else if (option.startsWith("bj=")) {
+                rules = rules.withBlackjackPayout(indexOf(BLACKJACK_NAMES, option.substring(3), option));
+            } else {
+                throw new IllegalArgumentException("Некорректное правило: " + option);
+            }
+        }
+        return rules;
+    }
+
+    private static int indexOf(String[] names, String value, String option) {
+        for (int i = 0; i < names.length; i++) {
+            if (names[i].equals(value)) {
+                return i;
+            }
+        }
+        throw new IllegalArgumentException("Некорректное правило: " + option);
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return other instanceof RuleSet && ((RuleSet) other).encode() == encode();
+    }
+
+    @Override
+    public int hashCode() {
+        return encode();
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder text = new StringBuilder(dealerHitsSoft17 ? "h17" : "s17");
+        text.append(",double=").append(DOUBLE_NAMES[doubleRule]);
+        if (doubleAfterSplit) {
+            text.append(",das");
+        }
+        text.append(",split=").append(maxHands);
+        if (surrender) {
+            text.append(",surrender");
+        }
+        text.append(",bj=").append(BLACKJACK_NAMES[blackjackPayout]);
+        return text.toString();
+    }
+}
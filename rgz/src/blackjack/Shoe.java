@@ -0,0 +1,152 @@
+package blackjack;
+
+import java.util.Arrays;
+
+// Шуз из нескольких колод, живущий между раундами. Карты выдаются по курсору,
+// перемешивание происходит только после выхода подрезной карты.
+public final class Shoe implements ShoeState {
+    public static final int MIN_DECKS = 1;
+    public static final int MAX_DECKS = 8;
+    public static final int DEFAULT_DECKS = 6;
+    public static final double DEFAULT_PENETRATION = 0.75;
+
+    private final int[] cards;
+    private final int decks;
+    private final int cutCard;
+    private final ShuffleSource source;
+    private final int[] remainingByRank = new int[Cards.RANKS];
+    private int cursor;
+    private long shuffleSeed;
+    private int runningCount;
+
+    public Shoe(int decks, double penetration, ShuffleSource source) {
+        if (decks < MIN_DECKS || decks > MAX_DECKS) {
+            throw new IllegalArgumentException("Количество колод должно быть от " + MIN_DECKS + " до " + MAX_DECKS + ": " + decks);
+        }
+        if (!(penetration > 0 && penetration <= 1)) {
+            throw new IllegalArgumentException("Проникновение должно быть в диапазоне (0, 1]: " + penetration);
+        }
+        this.decks = decks;
+        this.source = source;
+        this.cards = new int[decks * Cards.DECK_SIZE];
+        this.cutCard = (int) Math.round(cards.length * penetration);
+        shuffle();
+    }
+
+    public void shuffle() {
+        shuffle(source.nextSeed());
+    }
+
+    // Перемешивание полностью определяется seed: колода раскладывается заново
+    // и тасуется Фишером-Йетсом на SplitMix64, поэтому раздачу можно воспроизвести
+    public void shuffle(long seed) {
+        for (int i = 0; i < cards.length; i++) {
+            cards[i] = i % Cards.DECK_SIZE;
+        }
+        long state = seed;
+        for (int i = cards.length - 1; i > 0; i--) {
+            state += 0x9E3779B97F4A7C15L;
+            long z = state;
+            z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+            z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+            z ^= z >>> 31;
+            int j = (int) (((z >>> 32) * (i + 1)) >>> 32);
+            int tmp = cards[i];
+            cards[i] = cards[j];
+            cards[j] = tmp;
+        }
+        shuffleSeed = seed;
+        cursor = 0;
+        resetCount();
+    }
+
+    private void resetCount() {
+        Arrays.fill(remainingByRank, decks * Cards.SUITS);
+        runningCount = 0;
+    }
+
+    private void countOut(int card) {
+        remainingByRank[Cards.rank(card)]--;
+        runningCount += Cards.hiLo(card);
+    }
+
+    // Переставляет курсор, например чтобы повторить раунд из истории
+    public void seek(int position) {
+        if (position < 0 || position > cards.length) {
+            throw new IllegalArgumentException("Позиция вне шуза: " + position);
+        }
+        // Счет сдвигается только на карты между старым и новым курсором
+        for (int i = cursor; i < position; i++) {
+            countOut(cards[i]);
+        }
+        for (int i = position; i < cursor; i++) {
+            remainingByRank[Cards.rank(cards[i])]++;
+            runningCount -= Cards.hiLo(cards[i]);
+        }
+        cursor = position;
+    }
+
+    @Override
+    public long shuffleSeed() {
+        return shuffleSeed;
+    }
+
+    @Override
+    public int position() {
+        return cursor;
+    }
+
+    // Если шуз кончился посреди раунда, перемешиваем сразу, иначе ждем конца раунда
+    public int draw() {
+        if (cursor == cards.length) {
+            shuffle();
+        }
+        int card = cards[cursor++];
+        countOut(card);
+        return card;
+    }
+
+    public boolean cutCardReached() {
+        return cursor >= cutCard;
+    }
+
+    @Override
+    public int decks() {
+        return decks;
+    }
+
+    @Override
+    public int size() {
+        return cards.length;
+    }
+
+    @Override
+    public int remaining() {
+        return cards.length - cursor;
+    }
+
+    @Override
+    public void countRemaining(int[] byRank) {
+        System.arraycopy(remainingByRank, 0, byRank, 0, Cards.RANKS);
+    }
+
+    @Override
+    public int remainingOfRank(int rank) {
+        return remainingByRank[rank];
+    }
+
+    @Override
+    public int runningCount() {
+        return runningCount;
+    }
+
+    @Override
+    public double penetration() {
+        return (double) cursor / cards.length;
+    }
+
+    @Override
+    public int cutCard() {
+        return cutCard;
+    }
+}
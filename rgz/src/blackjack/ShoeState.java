@@ -0,0 +1,36 @@
+package blackjack;
+
+// Состояние шуза только для чтения — то, что стратегия может "видеть" за столом.
+// Состав и счет обновляются за O(1) на каждую вышедшую карту, поэтому чтение
+// ничего не пересчитывает. Shoe учитывает все вышедшие карты, включая закрытую карту
+// дилера; RoundEngine.playerView() не учитывает ее, пока дилер не открылся.
+public interface ShoeState {
+    int decks();
+
+    int size();
+
+    int remaining();
+
+    int position();
+
+    long shuffleSeed();
+
+    double penetration();
+
+    // Позиция подрезной карты: после нее шуз перемешивается между раундами
+    int cutCard();
+
+    int remainingOfRank(int rank);
+
+    // Текущий счет Hi-Lo с последнего перемешивания
+    int runningCount();
+
+    // Текущий счет на оставшуюся колоду
+    default double trueCount() {
+        int remaining = remaining();
+        return remaining == 0 ? runningCount() : runningCount() * (double) Cards.DECK_SIZE / remaining;
+    }
+
+    // Оставшиеся карты по достоинствам (индекс — Cards.rank)
+    void countRemaining(int[] byRank);
+}
@@ -0,0 +1,19 @@
+package blackjack;
+
+import java.util.SplittableRandom;
+import java.util.random.RandomGenerator;
+
+// Источник seed для перемешиваний шуза. Сам порядок карт определяется только seed
+// (см. Shoe.shuffle(long)), поэтому детерминированный источник дает воспроизводимую сессию.
+@FunctionalInterface
+public interface ShuffleSource {
+    long nextSeed();
+
+    static ShuffleSource from(RandomGenerator random) {
+        return random::nextLong;
+    }
+
+    static ShuffleSource seeded(long seed) {
+        return from(new SplittableRandom(seed));
+    }
+}
@@ -0,0 +1,135 @@
+package blackjack;
+
+import java.util.List;
+
+// Встроенные стратегии. Все без состояния, поэтому один экземпляр можно
+// использовать из любого числа потоков.
+public final class Strategies {
+    public static final List<String> NAMES = List.of("basic", "never-bust", "mimic-dealer", "random", "stand-on-<N>");
+
+    private static final Strategy BASIC = new BasicStrategy();
+
+    // Никогда не рискует перебором: жесткая рука стоит с 12, мягкая добирает до 18
+    private static final Strategy NEVER_BUST = (total, soft, dealerUpcard, shoe) ->
+            soft ? total < 18 : total < 12;
+
+    // Играет по правилу дилера
+    private static final Strategy MIMIC_DEALER = Strategy.standOn(RoundEngine.DEALER_STAND);
+
+    // Подбрасывает монету, пока не 21. Монета — хеш состояния шуза, а не общий
+    // генератор: решения воспроизводимы, одинаковы на общих шузах и потокобезопасны
+    private static final Strategy RANDOM = (total, soft, dealerUpcard, shoe) -> {
+        if (total >= 21) {
+            return false;
+        }
+        long z = shoe.shuffleSeed() + (shoe.position() + 1) * 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return ((z ^ (z >>> 31)) & 1) != 0;
+    };
+
+    private Strategies() {
+    }
+
+    // Базовая стратегия для многоколодного шуза, дилер стоит на мягких 17. Таблицы
+    // индексируются открытой картой дилера 2..11; удвоение, сплит и сдачу движок
+    // предлагает, только если их разрешает RuleSet.
+    private static final class BasicStrategy implements Strategy {
+        // Минимальная сумма, на которой игрок останавливается
+        private static final int[] HARD_STAND = {13, 13, 12, 12, 12, 17, 17, 17, 17, 17};
+        private static final int[] SOFT_STAND = {18, 18, 18, 18, 18, 18, 18, 19, 19, 19};
+        // Биты — открытые карты дилера (бит 0 — двойка), при которых выгодно действие
+        private static final int[] HARD_DOUBLE = new int[22];
+        private static final int[] SOFT_DOUBLE = new int[22];
+        private static final int[] SPLIT = new int[12];
+        private static final int[] SURRENDER = new int[22];
+
+        static {
+            HARD_DOUBLE[9] = upcards(3, 6);
+            HARD_DOUBLE[10] = upcards(2, 9);
+            HARD_DOUBLE[11] = upcards(2, 10);
+            SOFT_DOUBLE[13] = upcards(5, 6);
+            SOFT_DOUBLE[14] = upcards(5, 6);
+            SOFT_DOUBLE[15] = upcards(4, 6);
+            SOFT_DOUBLE[16] = upcards(4, 6);
+            SOFT_DOUBLE[17] = upcards(3, 6);
+            SOFT_DOUBLE[18] = upcards(3, 6);
+            SPLIT[2] = upcards(2, 7);
+            SPLIT[3] = upcards(2, 7);
+            SPLIT[4] = upcards(5, 6);
+            SPLIT[6] = upcards(2, 6);
+            SPLIT[7] = upcards(2, 7);
+            SPLIT[8] = upcards(2, 11);
+            SPLIT[9] = upcards(2, 6) | upcards(8, 9);
+            SPLIT[11] = upcards(2, 11);
+            SURRENDER[15] = upcards(10, 10);
+            SURRENDER[16] = upcards(9, 11);
+        }
+
+        private static int upcards(int from, int to) {
+            return ((1 << (to - from + 1)) - 1) << (from - 2);
+        }
+
+        private static boolean has(int mask, int dealerUpcard) {
+            return (mask & (1 << (dealerUpcard - 2))) != 0;
+        }
+
+        @Override
+        public boolean shouldHit(int total, boolean soft, int dealerUpcard, ShoeState shoe) {
+            return total < (soft ? SOFT_STAND : HARD_STAND)[dealerUpcard - 2];
+        }
+
+        @Override
+        public boolean shouldDouble(int total, boolean soft, int dealerUpcard, ShoeState shoe) {
+            return has((soft ? SOFT_DOUBLE : HARD_DOUBLE)[total], dealerUpcard);
+        }
+
+        @Override
+        public boolean shouldSplit(int pairPoints, int dealerUpcard, ShoeState shoe) {
+            return has(SPLIT[pairPoints], dealerUpcard);
+        }
+
+        @Override
+        public boolean shouldSurrender(int total, boolean soft, int dealerUpcard, ShoeState shoe) {
+            return !soft && has(SURRENDER[total], dealerUpcard);
+        }
+    }
+
+    public static Strategy basic() {
+        return BASIC;
+    }
+
+    public static Strategy neverBust() {
+        return NEVER_BUST;
+    }
+
+    public static Strategy mimicDealer() {
+        return MIMIC_DEALER;
+    }
+
+    public static Strategy random() {
+        return RANDOM;
+    }
+
+    public static Strategy byName(String name) {
+        switch (name) {
+            case "basic":
+                return BASIC;
+            case "never-bust":
+                return NEVER_BUST;
+            case "mimic-dealer":
+                return MIMIC_DEALER;
+            case "random":
+                return RANDOM;
+            default:
+                if (name.startsWith("stand-on-")) {
+                    try {
+                        return Strategy.standOn(Integer.parseInt(name.substring("stand-on-".length())));
+                    } catch (NumberFormatException e) {
+                        // Ниже — общее сообщение об ошибке
+                    }
+                }
+                throw new IllegalArgumentException("Неизвестная стратегия: " + name + ", доступны " + NAMES);
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package blackjack;
+
+// Решение игрока: брать ли еще карту. total — очки руки, soft — туз считается за 11,
+// dealerUpcard — очки открытой карты дилера (2..11), shoe — что известно о шузе
+// (RoundEngine.playerView: закрытая карта дилера в счет и состав не попадает).
+// Удвоение, сплит и сдача по умолчанию не используются; движок спрашивает о них,
+// только если правила стола их разрешают.
+@FunctionalInterface
+public interface Strategy {
+    boolean shouldHit(int total, boolean soft, int dealerUpcard, ShoeState shoe);
+
+    default boolean shouldDouble(int total, boolean soft, int dealerUpcard, ShoeState shoe) {
+        return false;
+    }
+
+    // pairPoints — очки одной карты пары (туз — 11)
+    default boolean shouldSplit(int pairPoints, int dealerUpcard, ShoeState shoe) {
+        return false;
+    }
+
+    default boolean shouldSurrender(int total, boolean soft, int dealerUpcard, ShoeState shoe) {
+        return false;
+    }
+
+    default boolean shouldHit(RoundEngine engine) {
+        int hand = engine.playerHand();
+        return shouldHit(Hands.score(hand), Hands.isSoft(hand), Cards.points(engine.dealerUpcard()), engine.playerView());
+    }
+
+    default boolean shouldDouble(RoundEngine engine) {
+        int hand = engine.playerHand();
+        return shouldDouble(Hands.score(hand), Hands.isSoft(hand), Cards.points(engine.dealerUpcard()), engine.playerView());
+    }
+
+    default boolean shouldSplit(RoundEngine engine) {
+        return shouldSplit(engine.pairPoints(), Cards.points(engine.dealerUpcard()), engine.playerView());
+    }
+
+    // Пару, которую стратегия делит, не сдают (8-8 против десятки)
+    default boolean shouldSurrender(RoundEngine engine) {
+        if (engine.canSplit() && shouldSplit(engine)) {
+            return false;
+        }
+        int hand = engine.playerHand();
+        return shouldSurrender(Hands.score(hand), Hands.isSoft(hand), Cards.points(engine.dealerUpcard()), engine.playerView());
+    }
+
+    static Strategy standOn(int total) {
+        return (playerTotal, soft, dealerUpcard, shoe) -> playerTotal < total;
+    }
+}
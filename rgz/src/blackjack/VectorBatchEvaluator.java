@@ -0,0 +1,100 @@
+package blackjack;
+
+import jdk.incubator.vector.ByteVector;
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+// Векторная реализация BatchEvaluator на предпочтительной для процессора ширине.
+// Столбец рангов читается байтовым вектором и расширяется до int по частям;
+// ветвления заменены масками, хвост меньше вектора считается скалярно.
+// Загружается только через BatchEvaluator.get().
+final class VectorBatchEvaluator extends BatchEvaluator {
+    private static final VectorSpecies<Integer> INTS = IntVector.SPECIES_PREFERRED;
+    private static final VectorSpecies<Byte> BYTES = ByteVector.SPECIES_PREFERRED;
+    // Сколько векторов int дает один байтовый вектор той же ширины
+    private static final int PARTS = BYTES.length() / INTS.length();
+
+    @Override
+    public String name() {
+        return "vector-" + INTS.vectorBitSize();
+    }
+
+    @Override
+    public void pack(byte[] ranks, int slots, int count, int[] hands) {
+        int bound = BYTES.loopBound(count);
+        int hand = 0;
+        for (; hand < bound; hand += BYTES.length()) {
+            for (int part = 0; part < PARTS; part++) {
+                IntVector packed = IntVector.zero(INTS);
+                for (int slot = 0; slot < slots; slot++) {
+                    IntVector rank = (IntVector) ByteVector.fromArray(BYTES, ranks, slot * count + hand)
+                            .convertShape(VectorOperators.B2I, INTS, part);
+                    VectorMask<Integer> ace = rank.eq(Cards.ACE);
+                    // Очки карты (туз за 1) и единица в счетчике карт; пустая ячейка — ноль
+                    IntVector value = rank.add(2).min(10).blend(1, ace)
+                            .add(1 << Hands.COUNT_SHIFT).blend(0, rank.lt(0));
+                    packed = packed.add(value).lanewise(VectorOperators.OR, Hands.ACE_FLAG, ace);
+                }
+                packed.intoArray(hands, hand + part * INTS.length());
+            }
+        }
+        for (; hand < count; hand++) {
+            hands[hand] = packScalar(ranks, slots, count, hand);
+        }
+    }
+
+    @Override
+    public void settle(RuleSet rules, int[] playerHands, int[] dealerHands, int count,
+                       int[] outcomes, int[] netTenths) {
+        int[] net = netTable(rules);
+        int bound = INTS.loopBound(count);
+        int hand = 0;
+        for (; hand < bound; hand += INTS.length()) {
+            IntVector player = IntVector.fromArray(INTS, playerHands, hand);
+            IntVector dealer = IntVector.fromArray(INTS, dealerHands, hand);
+            IntVector playerScore = score(player);
+            IntVector dealerScore = score(dealer);
+            // Маски в порядке возрастания приоритета, как проверки в RuleSet
+            VectorMask<Integer> loss = dealerScore.compare(VectorOperators.GT, playerScore);
+            VectorMask<Integer> win = playerScore.compare(VectorOperators.GT, dealerScore);
+            VectorMask<Integer> blackjack = blackjack(player, playerScore).andNot(blackjack(dealer, dealerScore));
+            VectorMask<Integer> dealerBust = dealerScore.compare(VectorOperators.GT, 21);
+            VectorMask<Integer> playerBust = playerScore.compare(VectorOperators.GT, 21);
+            IntVector.broadcast(INTS, RoundEngine.OUTCOME_PUSH)
+                    .blend(RoundEngine.OUTCOME_LOSS, loss)
+                    .blend(RoundEngine.OUTCOME_WIN, win)
+                    .blend(RoundEngine.OUTCOME_BLACKJACK, blackjack)
+                    .blend(RoundEngine.OUTCOME_DEALER_BUST, dealerBust)
+                    .blend(RoundEngine.OUTCOME_PLAYER_BUST, playerBust)
+                    .intoArray(outcomes, hand);
+            IntVector.broadcast(INTS, net[RoundEngine.OUTCOME_PUSH])
+                    .blend(net[RoundEngine.OUTCOME_LOSS], loss)
+                    .blend(net[RoundEngine.OUTCOME_WIN], win)
+                    .blend(net[RoundEngine.OUTCOME_BLACKJACK], blackjack)
+                    .blend(net[RoundEngine.OUTCOME_DEALER_BUST], dealerBust)
+                    .blend(net[RoundEngine.OUTCOME_PLAYER_BUST], playerBust)
+                    .intoArray(netTenths, hand);
+        }
+        for (; hand < count; hand++) {
+            int player = playerHands[hand];
+            int outcome = rules.outcome(player, Hands.isBlackjack(player), dealerHands[hand]);
+            outcomes[hand] = outcome;
+            netTenths[hand] = net[outcome];
+        }
+    }
+
+    // Hands.score по всем линиям: туз добавляет 10, пока рука не переберет
+    private static IntVector score(IntVector hands) {
+        IntVector hard = hands.and(Hands.HARD_MASK);
+        VectorMask<Integer> soft = hands.and(Hands.ACE_FLAG).compare(VectorOperators.NE, 0)
+                .and(hard.compare(VectorOperators.LE, 11));
+        return hard.add(10, soft);
+    }
+
+    private static VectorMask<Integer> blackjack(IntVector hands, IntVector score) {
+        return hands.lanewise(VectorOperators.LSHR, Hands.COUNT_SHIFT).and(Hands.COUNT_MASK).eq(2)
+                .and(score.eq(21));
+    }
+}
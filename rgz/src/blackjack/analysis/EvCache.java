@@ -0,0 +1,72 @@
+package blackjack.analysis;
+
+import java.util.Arrays;
+
+// Кэш прямого отображения фиксированного размера: ключ — (состав, состояние руки),
+// значение — stride чисел double. При коллизии старая запись просто вытесняется,
+// поэтому память ограничена capacity * (12 + 8 * stride) байт.
+final class EvCache {
+    private static final long EMPTY = -1L;
+
+    private final long[] compositions;
+    private final int[] states;
+    private final double[] values;
+    private final int stride;
+    private final int mask;
+    private long hits;
+    private long misses;
+
+    EvCache(int capacity, int stride) {
+        if (Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("Размер кэша должен быть степенью двойки: " + capacity);
+        }
+        this.compositions = new long[capacity];
+        this.states = new int[capacity];
+        this.values = new double[capacity * stride];
+        this.stride = stride;
+        this.mask = capacity - 1;
+        Arrays.fill(compositions, EMPTY);
+    }
+
+    // Индекс слота с сохраненным значением или -1
+    int find(long composition, int state) {
+        int slot = slot(composition, state);
+        if (compositions[slot] == composition && states[slot] == state) {
+            hits++;
+            return slot * stride;
+        }
+        misses++;
+        return -1;
+    }
+
+    // Занимает слот (вытесняя прежнюю запись) и возвращает смещение для записи значений
+    int put(long composition, int state) {
+        int slot = slot(composition, state);
+        compositions[slot] = composition;
+        states[slot] = state;
+        return slot * stride;
+    }
+
+    double[] values() {
+        return values;
+    }
+
+    void clear() {
+        Arrays.fill(compositions, EMPTY);
+        hits = 0;
+        misses = 0;
+    }
+
+    long hits() {
+        return hits;
+    }
+
+    long misses() {
+        return misses;
+    }
+
+    private int slot(long composition, int state) {
+        long h = composition * 0x9E3779B97F4A7C15L + state * 0xC2B2AE3D27D4EB4FL;
+        return (int) (h ^ (h >>> 32)) & mask;
+    }
+}
@@ -0,0 +1,261 @@
+package blackjack.analysis;
+
+import blackjack.Cards;
+import blackjack.Hands;
+import blackjack.RoundEngine;
+import blackjack.RuleSet;
+
+import java.util.Arrays;
+
+// Точное матожидание "взять" и "хватит" для текущего состава шуза.
+// Состав сворачивается до 10 значений (2..9, десятка, туз) и упаковывается в long,
+// по нему и по состоянию руки мемоизируются распределение итогов дилера и лучший EV игрока.
+// EV считается на единицу ставки: дилер добирает по RuleSet.dealerHits, выплаты — RuleSet.payout,
+// как в RoundEngine. Кэш дилера зависит от правил, поэтому правила задаются при создании.
+public final class EvCalculator {
+    public static final int DEFAULT_CACHE_SLOTS = 1 << 16;
+
+    static final int VALUES = 10;
+    private static final int TEN = 8;
+    private static final int ACE = 9;
+
+    // Итоги дилера: 17..21, блэкджек, перебор и "остановился ниже 17" (шуз закончился)
+    private static final int DEALER_OUTCOMES = 8;
+    private static final int DEALER_BLACKJACK = 5;
+    private static final int DEALER_BUST = 6;
+    private static final int DEALER_STIFF = 7;
+
+    private static final int KIND_DEALER = 0;
+    private static final int KIND_PLAYER = 1 << 12;
+    // Выплаты RuleSet кратны десятой части ставки
+    private static final int PAYOUT_UNIT = 10;
+
+    // 6 бит на каждое значение и 8 бит на десятки: 8 колод (128 десяток) помещаются в 62 бита
+    private static final int[] SHIFTS = {0, 6, 12, 18, 24, 30, 36, 42, 48, 56};
+    // Дилер берет карты не дальше жесткой 17, то есть рука не длиннее 17 карт
+    private static final int MAX_DEALER_CARDS = 17;
+    private static final int[] CARD_OF_VALUE = new int[VALUES];
+
+    static {
+        for (int value = 0; value < VALUES; value++) {
+            int rank = value == ACE ? Cards.ACE : value;
+            CARD_OF_VALUE[value] = Cards.of(rank, 0);
+        }
+    }
+
+    private final RuleSet rules;
+    // Выигрыш на единицу ставки по исходу RoundEngine.OUTCOME_*
+    private final double[] net = new double[RoundEngine.OUTCOME_COUNT];
+    private final EvCache dealerCache;
+    private final EvCache playerCache;
+    private final int[] counts = new int[VALUES];
+    private final double[] standScratch = new double[DEALER_OUTCOMES];
+    // Распределение для каждой глубины рекурсии дилера, глубина — число карт в руке
+    private final double[][] dealerScratch = new double[MAX_DEALER_CARDS + 1][DEALER_OUTCOMES];
+    private long compositionKey;
+    private int remaining;
+
+    public EvCalculator(RuleSet rules) {
+        this(rules, DEFAULT_CACHE_SLOTS);
+    }
+
+    public EvCalculator(RuleSet rules, int cacheSlots) {
+        this.rules = rules;
+        for (int outcome = 0; outcome < RoundEngine.OUTCOME_COUNT; outcome++) {
+            net[outcome] = (double) rules.payout(outcome, PAYOUT_UNIT) / PAYOUT_UNIT - 1;
+        }
+        dealerCache = new EvCache(cacheSlots, DEALER_OUTCOMES);
+        playerCache = new EvCache(cacheSlots, 1);
+    }
+
+    // Карты, невидимые игроку: остаток шуза плюс закрытая карта дилера
+    public static void unseenCards(RoundEngine engine, int[] byRank) {
+        engine.playerView().countRemaining(byRank);
+    }
+
+    public double standEv(int[] byRank, int playerHand, int dealerUpcard) {
+        load(byRank);
+        return stand(playerHand, dealerUpcard);
+    }
+
+    // Взять одну карту, дальше играть оптимально (брать/хватит)
+    public double hitEv(int[] byRank, int playerHand, int dealerUpcard) {
+        load(byRank);
+        return hit(playerHand, dealerUpcard);
+    }
+
+    public boolean shouldHit(int[] byRank, int playerHand, int dealerUpcard) {
+        load(byRank);
+        return hit(playerHand, dealerUpcard) > stand(playerHand, dealerUpcard);
+    }
+
+    public void clearCache() {
+        dealerCache.clear();
+        playerCache.clear();
+    }
+
+    public long cacheHits() {
+        return dealerCache.hits() + playerCache.hits();
+    }
+
+    public long cacheMisses() {
+        return dealerCache.misses() + playerCache.misses();
+    }
+
+    private void load(int[] byRank) {
+        if (byRank.length != Cards.RANKS) {
+            throw new IllegalArgumentException("Ожидается состав из " + Cards.RANKS + " достоинств");
+        }
+        Arrays.fill(counts, 0);
+        for (int rank = 0; rank < Cards.RANKS; rank++) {
+            counts[valueOfRank(rank)] += byRank[rank];
+        }
+        compositionKey = 0;
+        remaining = 0;
+        for (int value = 0; value < VALUES; value++) {
+            if (counts[value] >= 1 << (value == TEN ? 8 : 6)) {
+                throw new IllegalArgumentException("Слишком много карт значения " + value + ": " + counts[value]);
+            }
+            compositionKey += (long) counts[value] << SHIFTS[value];
+            remaining += counts[value];
+        }
+    }
+
+    private static int valueOfRank(int rank) {
+        if (rank == Cards.ACE) {
+            return ACE;
+        }
+        return Math.min(rank, TEN);
+    }
+
+    private void take(int value) {
+        counts[value]--;
+        remaining--;
+        compositionKey -= 1L << SHIFTS[value];
+    }
+
+    private void putBack(int value) {
+        counts[value]++;
+        remaining++;
+        compositionKey += 1L << SHIFTS[value];
+    }
+
+    private double stand(int playerHand, int dealerUpcard) {
+        double[] dist = standScratch;
+        int offset = dealerOutcomes(Hands.add(Hands.EMPTY, dealerUpcard));
+        System.arraycopy(dealerCache.values(), offset, dist, 0, DEALER_OUTCOMES);
+        int score = Hands.score(playerHand);
+        boolean blackjack = Hands.isBlackjack(playerHand);
+        double ev = 0;
+        for (int outcome = 0; outcome < DEALER_OUTCOMES; outcome++) {
+            ev += dist[outcome] * net[settle(score, blackjack, outcome)];
+        }
+        return ev;
+    }
+
+    private double hit(int playerHand, int dealerUpcard) {
+        double ev = 0;
+        int total = remaining;
+        for (int value = 0; value < VALUES; value++) {
+            int count = counts[value];
+            if (count == 0) {
+                continue;
+            }
+            double p = (double) count / total;
+            int next = Hands.add(playerHand, CARD_OF_VALUE[value]);
+            if (Hands.isBust(next)) {
+                ev -= p;
+            } else {
+                take(value);
+                ev += p * best(next, dealerUpcard);
+                putBack(value);
+            }
+        }
+        return ev;
+    }
+
+    private double best(int playerHand, int dealerUpcard) {
+        int state = KIND_PLAYER | Hands.hardTotal(playerHand) | (Hands.hasAce(playerHand) ? 1 << 5 : 0)
+                | valueOfRank(Cards.rank(dealerUpcard)) << 6;
+        int offset = playerCache.find(compositionKey, state);
+        if (offset >= 0) {
+            return playerCache.values()[offset];
+        }
+        double ev = stand(playerHand, dealerUpcard);
+        if (Hands.score(playerHand) < 21 && remaining > 0) {
+            ev = Math.max(ev, hit(playerHand, dealerUpcard));
+        }
+        // Слот мог быть занят во время рекурсии, поэтому резервируем его только сейчас
+        playerCache.values()[playerCache.put(compositionKey, state)] = ev;
+        return ev;
+    }
+
+    // Распределение итогов дилера из текущей руки; возвращает смещение в значениях кэша
+    private int dealerOutcomes(int dealerHand) {
+        int state = KIND_DEALER | Hands.hardTotal(dealerHand) | (Hands.hasAce(dealerHand) ? 1 << 5 : 0)
+                | (Hands.size(dealerHand) == 1 ? 1 << 6 : 0);
+        int offset = dealerCache.find(compositionKey, state);
+        if (offset >= 0) {
+            return offset;
+        }
+        double[] dist = dealerScratch[Hands.size(dealerHand)];
+        Arrays.fill(dist, 0);
+        int total = remaining;
+        if (total == 0) {
+            dist[DEALER_STIFF] = 1;
+        } else {
+            for (int value = 0; value < VALUES; value++) {
+                int count = counts[value];
+                if (count == 0) {
+                    continue;
+                }
+                double p = (double) count / total;
+                int next = Hands.add(dealerHand, CARD_OF_VALUE[value]);
+                int score = Hands.score(next);
+                if (score > 21) {
+                    dist[DEALER_BUST] += p;
+                } else if (Hands.isBlackjack(next)) {
+                    dist[DEALER_BLACKJACK] += p;
+                } else if (!rules.dealerHits(next)) {
+                    dist[score - RoundEngine.DEALER_STAND] += p;
+                } else {
+                    take(value);
+                    int child = dealerOutcomes(next);
+                    double[] values = dealerCache.values();
+                    for (int outcome = 0; outcome < DEALER_OUTCOMES; outcome++) {
+                        dist[outcome] += p * values[child + outcome];
+                    }
+                    putBack(value);
+                }
+            }
+        }
+        offset = dealerCache.put(compositionKey, state);
+        System.arraycopy(dist, 0, dealerCache.values(), offset, DEALER_OUTCOMES);
+        return offset;
+    }
+
+    // Исход RoundEngine.OUTCOME_* в порядке проверок таблицы исходов RuleSet
+    private static int settle(int playerScore, boolean playerBlackjack, int dealerOutcome) {
+        if (playerScore > 21) {
+            return RoundEngine.OUTCOME_PLAYER_BUST;
+        }
+        if (dealerOutcome == DEALER_BUST) {
+            return RoundEngine.OUTCOME_DEALER_BUST;
+        }
+        if (playerBlackjack) {
+            return dealerOutcome == DEALER_BLACKJACK ? RoundEngine.OUTCOME_PUSH : RoundEngine.OUTCOME_BLACKJACK;
+        }
+        int dealerScore;
+        if (dealerOutcome == DEALER_BLACKJACK) {
+            dealerScore = 21;
+        } else if (dealerOutcome == DEALER_STIFF) {
+            return playerScore >= RoundEngine.DEALER_STAND ? RoundEngine.OUTCOME_WIN : RoundEngine.OUTCOME_PUSH;
+        } else {
+            dealerScore = RoundEngine.DEALER_STAND + dealerOutcome;
+        }
+        if (playerScore > dealerScore) {
+            return RoundEngine.OUTCOME_WIN;
+        }
+        return playerScore < dealerScore ? RoundEngine.OUTCOME_LOSS : RoundEngine.OUTCOME_PUSH;
+    }
+}
@@ -0,0 +1,32 @@
+package blackjack.analytics;
+
+import java.io.PrintStream;
+
+public final class AnalyticsReport {
+    private AnalyticsReport() {
+    }
+
+    // Пустые группы не печатаются
+    public static void print(PrintStream out, GroupedResult result, long elapsedNanos) {
+        Dimension[] dimensions = result.dimensions();
+        double millis = elapsedNanos / 1e6;
+        out.printf("Запрос по %,d раундам за %.1f мс (%,.0f млн строк/с)%n",
+                result.totalRounds(), millis, result.totalRounds() / millis / 1e3);
+        StringBuilder header = new StringBuilder();
+        for (Dimension dimension : dimensions) {
+            header.append(String.format("%-16s", dimension.title()));
+        }
+        out.printf("%s %15s %8s %8s %9s%n", header, "Раундов", "Побед", "Ничьих", "EV");
+        for (int group = 0; group < result.groups(); group++) {
+            if (result.rounds(group) == 0) {
+                continue;
+            }
+            StringBuilder row = new StringBuilder();
+            for (int dimension = 0; dimension < dimensions.length; dimension++) {
+                row.append(String.format("%-16s", result.label(group, dimension)));
+            }
+            out.printf("%s %,15d %7.2f%% %7.2f%% %+9.4f%n", row, result.rounds(group),
+                    result.winRate(group) * 100, result.pushRate(group) * 100, result.expectedValue(group));
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package blackjack.analytics;
+
+import blackjack.RoundEngine;
+import blackjack.sim.SimulationReport;
+
+import java.util.Arrays;
+
+// Измерение группировки: столбец и его коды 0..cardinality-1. Ключ группы
+// накапливается как key * cardinality + code, по одному измерению за проход блока.
+public enum Dimension {
+    UPCARD("upcard", "Карта дилера"),
+    PLAYER_TOTAL("total", "Игрок"),
+    DEALER_TOTAL("dealer", "Дилер"),
+    OUTCOME("outcome", "Исход"),
+    BET("bet", "Ставка");
+
+    private final String key;
+    private final String title;
+
+    Dimension(String key, String title) {
+        this.key = key;
+        this.title = title;
+    }
+
+    public String key() {
+        return key;
+    }
+
+    public String title() {
+        return title;
+    }
+
+    public static Dimension byKey(String key) {
+        for (Dimension dimension : values()) {
+            if (dimension.key.equals(key)) {
+                return dimension;
+            }
+        }
+        throw new IllegalArgumentException("Неизвестное измерение: " + key
+                + " (доступны upcard, total, dealer, outcome, bet)");
+    }
+
+    int cardinality(HandColumns columns) {
+        switch (this) {
+            case UPCARD:
+                return 12;
+            case PLAYER_TOTAL:
+            case DEALER_TOTAL:
+                return HandColumns.MAX_TOTAL + 1;
+            case OUTCOME:
+                return RoundEngine.OUTCOME_COUNT;
+            default:
+                return columns.betValues().length;
+        }
+    }
+
+    void accumulateKeys(HandColumns columns, int from, int to, int[] keys) {
+        int cardinality = cardinality(columns);
+        switch (this) {
+            case UPCARD:
+                accumulate(columns.upcard, from, to, keys, cardinality);
+                break;
+            case PLAYER_TOTAL:
+                accumulate(columns.playerTotal, from, to, keys, cardinality);
+                break;
+            case DEALER_TOTAL:
+                accumulate(columns.dealerTotal, from, to, keys, cardinality);
+                break;
+            case OUTCOME:
+                accumulate(columns.outcome, from, to, keys, cardinality);
+                break;
+            default:
+                // Ставка обычно повторяется из раунда в раунд: поиск только при смене
+                int[] bets = columns.bet;
+                int[] values = columns.betValues();
+                int lastBet = values[0];
+                int lastCode = 0;
+                for (int row = from; row < to; row++) {
+                    if (bets[row] != lastBet) {
+                        lastBet = bets[row];
+                        lastCode = Arrays.binarySearch(values, lastBet);
+                    }
+                    keys[row - from] = keys[row - from] * cardinality + lastCode;
+                }
+                break;
+        }
+    }
+
+    private static void accumulate(byte[] column, int from, int to, int[] keys, int cardinality) {
+        for (int row = from; row < to; row++) {
+            keys[row - from] = keys[row - from] * cardinality + column[row];
+        }
+    }
+
+    String label(HandColumns columns, int code) {
+        switch (this) {
+            case UPCARD:
+                return code == 11 ? "A" : code == 0 ? "-" : String.valueOf(code);
+            case OUTCOME:
+                return SimulationReport.outcomeName(code);
+            case BET:
+                return String.valueOf(columns.betValues()[code]);
+            default:
+                return String.valueOf(code);
+        }
+    }
+}
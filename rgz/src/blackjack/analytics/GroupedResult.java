@@ -0,0 +1,110 @@
+package blackjack.analytics;
+
+import blackjack.RoundEngine;
+
+// Агрегаты по группам: число раундов по каждому исходу, сумма ставок и выигрыш
+// игрока (выплата минус ставка). Исход входит в индекс счетчика, поэтому проход
+// по строкам обходится без ветвлений. Частичные результаты потоков складываются merge.
+public final class GroupedResult {
+    static final int MAX_GROUPS = 1 << 20;
+
+    private final int groups;
+    // outcomes[group * OUTCOME_COUNT + outcome]
+    private final long[] outcomes;
+    private final long[] wagered;
+    private final long[] net;
+    private HandColumns columns;
+    private Dimension[] dimensions;
+    private int[] cardinalities;
+
+    GroupedResult(int groups) {
+        this.groups = groups;
+        outcomes = new long[groups * RoundEngine.OUTCOME_COUNT];
+        wagered = new long[groups];
+        net = new long[groups];
+    }
+
+    void accumulate(HandColumns columns, int from, int to, int[] keys) {
+        byte[] outcomeColumn = columns.outcome;
+        int[] bets = columns.bet;
+        int[] payouts = columns.payout;
+        for (int row = from; row < to; row++) {
+            int group = keys[row - from];
+            outcomes[group * RoundEngine.OUTCOME_COUNT + outcomeColumn[row]]++;
+            wagered[group] += bets[row];
+            net[group] += payouts[row] - bets[row];
+        }
+    }
+
+    GroupedResult merge(GroupedResult other) {
+        for (int i = 0; i < outcomes.length; i++) {
+            outcomes[i] += other.outcomes[i];
+        }
+        for (int group = 0; group < groups; group++) {
+            wagered[group] += other.wagered[group];
+            net[group] += other.net[group];
+        }
+        return this;
+    }
+
+    void describe(HandColumns columns, Dimension[] dimensions, int[] cardinalities) {
+        this.columns = columns;
+        this.dimensions = dimensions;
+        this.cardinalities = cardinalities;
+    }
+
+    public int groups() {
+        return groups;
+    }
+
+    public Dimension[] dimensions() {
+        return dimensions.clone();
+    }
+
+    // Подпись группы по одному измерению: ключ раскладывается обратно по мощностям
+    public String label(int group, int dimension) {
+        int code = group;
+        for (int i = dimensions.length - 1; i > dimension; i--) {
+            code /= cardinalities[i];
+        }
+        return dimensions[dimension].label(columns, code % cardinalities[dimension]);
+    }
+
+    public long rounds(int group) {
+        long total = 0;
+        for (int outcome = 0; outcome < RoundEngine.OUTCOME_COUNT; outcome++) {
+            total += outcomes[group * RoundEngine.OUTCOME_COUNT + outcome];
+        }
+        return total;
+    }
+
+    public long outcomeCount(int group, int outcome) {
+        return outcomes[group * RoundEngine.OUTCOME_COUNT + outcome];
+    }
+
+    // Победа — выигрыш, блэкджек или перебор дилера
+    public double winRate(int group) {
+        long rounds = rounds(group);
+        return rounds == 0 ? 0 : (double) (outcomeCount(group, RoundEngine.OUTCOME_WIN)
+                + outcomeCount(group, RoundEngine.OUTCOME_BLACKJACK)
+                + outcomeCount(group, RoundEngine.OUTCOME_DEALER_BUST)) / rounds;
+    }
+
+    public double pushRate(int group) {
+        long rounds = rounds(group);
+        return rounds == 0 ? 0 : (double) outcomeCount(group, RoundEngine.OUTCOME_PUSH) / rounds;
+    }
+
+    // Выигрыш игрока на единицу поставленного
+    public double expectedValue(int group) {
+        return wagered[group] == 0 ? 0 : (double) net[group] / wagered[group];
+    }
+
+    public long totalRounds() {
+        long total = 0;
+        for (long count : outcomes) {
+            total += count;
+        }
+        return total;
+    }
+}
@@ -0,0 +1,275 @@
+package blackjack.analytics;
+
+import blackjack.Cards;
+import blackjack.Hands;
+import blackjack.history.HandHistoryReader;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
+
+// История раздач в столбцах примитивов: строка — раунд, 12 байт на строку вместо
+// объекта на раунд. Файлы читаются параллельно кусками по LEAF_ROWS, каждый кусок
+// пишет в свой диапазон строк, поэтому общего изменяемого состояния нет.
+//
+// Итоги рук считаются по сохраненным картам; если карт больше HandRecord.MAX_CARDS,
+// лишние не учитываются, как и при записи.
+public final class HandColumns {
+    static final int LEAF_ROWS = 1 << 18;
+    // Итоги больше 31 не встречаются: перебор набирается не позже 21 + 10
+    static final int MAX_TOTAL = 31;
+
+    final int rows;
+    // Очки открытой карты дилера 2..11 (туз — 11), 0 — карт дилера нет в записи
+    final byte[] upcard;
+    final byte[] playerTotal;
+    final byte[] dealerTotal;
+    final byte[] outcome;
+    final int[] bet;
+    final int[] payout;
+    // Словарь различных ставок по возрастанию, строится при первом запросе по ставке
+    private int[] betValues;
+
+    private HandColumns(int rows) {
+        this.rows = rows;
+        upcard = new byte[rows];
+        playerTotal = new byte[rows];
+        dealerTotal = new byte[rows];
+        outcome = new byte[rows];
+        bet = new int[rows];
+        payout = new int[rows];
+    }
+
+    public static HandColumns load(List<Path> files, int parallelism) throws IOException {
+        List<HandHistoryReader> readers = new ArrayList<>();
+        try {
+            long total = 0;
+            for (Path file : files) {
+                HandHistoryReader reader = new HandHistoryReader(file);
+                readers.add(reader);
+                total += reader.count();
+            }
+            if (total > Integer.MAX_VALUE - 8) {
+                throw new IOException("Слишком много раундов для столбцов в памяти: " + total);
+            }
+            HandColumns columns = new HandColumns((int) total);
+            List<LoadTask> tasks = new ArrayList<>();
+            int offset = 0;
+            for (HandHistoryReader reader : readers) {
+                tasks.add(new LoadTask(columns, reader, 0, reader.count(), offset));
+                offset += (int) reader.count();
+            }
+            ForkJoinPool pool = new ForkJoinPool(parallelism);
+            try {
+                pool.invoke(new RecursiveAction() {
+                    @Override
+                    protected void compute() {
+                        invokeAll(tasks);
+                    }
+                });
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            } finally {
+                pool.shutdown();
+            }
+            return columns;
+        } finally {
+            for (HandHistoryReader reader : readers) {
+                reader.close();
+            }
+        }
+    }
+
+    public int rows() {
+        return rows;
+    }
+
+    // Объем столбцов в байтах, без словаря ставок
+    public long bytes() {
+        return (long) rows * (4 * Byte.BYTES + 2 * Integer.BYTES);
+    }
+
+    // Группировка по измерениям: ключ группы — смешанная система счисления по их мощностям
+    public GroupedResult groupBy(int parallelism, Dimension... dimensions) {
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            if (betValues == null && Arrays.asList(dimensions).contains(Dimension.BET)) {
+                betValues = pool.invoke(new DistinctBets(this, 0, rows));
+            }
+            int[] cardinalities = new int[dimensions.length];
+            long groups = 1;
+            for (int i = 0; i < dimensions.length; i++) {
+                cardinalities[i] = dimensions[i].cardinality(this);
+                groups *= cardinalities[i];
+            }
+            if (groups > GroupedResult.MAX_GROUPS) {
+                throw new IllegalArgumentException("Слишком много групп: " + groups);
+            }
+            GroupedResult result = pool.invoke(new ScanTask(this, dimensions, (int) groups, 0, rows));
+            result.describe(this, dimensions, cardinalities);
+            return result;
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    // Заполняется в groupBy до сканирования, если среди измерений есть ставка
+    int[] betValues() {
+        return betValues;
+    }
+
+    private static final class LoadTask extends RecursiveAction {
+        private final HandColumns columns;
+        private final HandHistoryReader reader;
+        private final long from;
+        private final long to;
+        private final int offset;
+
+        LoadTask(HandColumns columns, HandHistoryReader reader, long from, long to, int offset) {
+            this.columns = columns;
+            this.reader = reader;
+            this.from = from;
+            this.to = to;
+            this.offset = offset;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > LEAF_ROWS) {
+                long middle = (from + to) >>> 1;
+                invokeAll(new LoadTask(columns, reader, from, middle, offset),
+                        new LoadTask(columns, reader, middle, to, offset + (int) (middle - from)));
+                return;
+            }
+            try {
+                reader.forEach(from, to, (index, record) -> {
+                    int row = offset + (int) (index - from);
+                    int player = Hands.EMPTY;
+                    for (int i = 0; i < record.playerCardCount(); i++) {
+                        player = Hands.add(player, record.playerCard(i));
+                    }
+                    int dealer = Hands.EMPTY;
+                    for (int i = 0; i < record.dealerCardCount(); i++) {
+                        dealer = Hands.add(dealer, record.dealerCard(i));
+                    }
+                    columns.upcard[row] = (byte) (record.dealerCardCount() > 0 ? Cards.points(record.dealerCard(0)) : 0);
+                    columns.playerTotal[row] = (byte) Math.min(Hands.score(player), MAX_TOTAL);
+                    columns.dealerTotal[row] = (byte) Math.min(Hands.score(dealer), MAX_TOTAL);
+                    columns.outcome[row] = (byte) record.outcome();
+                    columns.bet[row] = record.bet();
+                    columns.payout[row] = record.payout();
+                    return true;
+                });
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    // Ключи групп считаются по столбцам блоками: одно измерение за проход по блоку
+    private static final class ScanTask extends RecursiveTask<GroupedResult> {
+        private static final int BLOCK = 4096;
+
+        private final HandColumns columns;
+        private final Dimension[] dimensions;
+        private final int groups;
+        private final int from;
+        private final int to;
+
+        ScanTask(HandColumns columns, Dimension[] dimensions, int groups, int from, int to) {
+            this.columns = columns;
+            this.dimensions = dimensions;
+            this.groups = groups;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected GroupedResult compute() {
+            if (to - from > LEAF_ROWS) {
+                int middle = (from + to) >>> 1;
+                ScanTask left = new ScanTask(columns, dimensions, groups, from, middle);
+                ScanTask right = new ScanTask(columns, dimensions, groups, middle, to);
+                left.fork();
+                GroupedResult result = right.compute();
+                return result.merge(left.join());
+            }
+            GroupedResult result = new GroupedResult(groups);
+            int[] keys = new int[BLOCK];
+            for (int start = from; start < to; start += BLOCK) {
+                int end = Math.min(to, start + BLOCK);
+                Arrays.fill(keys, 0);
+                for (Dimension dimension : dimensions) {
+                    dimension.accumulateKeys(columns, start, end, keys);
+                }
+                result.accumulate(columns, start, end, keys);
+            }
+            return result;
+        }
+    }
+
+    private static final class DistinctBets extends RecursiveTask<int[]> {
+        private final HandColumns columns;
+        private final int from;
+        private final int to;
+
+        DistinctBets(HandColumns columns, int from, int to) {
+            this.columns = columns;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected int[] compute() {
+            if (to - from > LEAF_ROWS) {
+                int middle = (from + to) >>> 1;
+                DistinctBets left = new DistinctBets(columns, from, middle);
+                DistinctBets right = new DistinctBets(columns, middle, to);
+                left.fork();
+                return union(right.compute(), left.join());
+            }
+            // Различных ставок обычно десятки: отсортированный массив и двоичный поиск
+            int[] values = new int[16];
+            int size = 0;
+            int last = Integer.MIN_VALUE;
+            for (int row = from; row < to; row++) {
+                int value = columns.bet[row];
+                if (value == last) {
+                    continue;
+                }
+                last = value;
+                int position = Arrays.binarySearch(values, 0, size, value);
+                if (position < 0) {
+                    position = -position - 1;
+                    if (size == values.length) {
+                        values = Arrays.copyOf(values, size * 2);
+                    }
+                    System.arraycopy(values, position, values, position + 1, size - position);
+                    values[position] = value;
+                    size++;
+                }
+            }
+            return Arrays.copyOf(values, size);
+        }
+
+        private static int[] union(int[] a, int[] b) {
+            int[] merged = new int[a.length + b.length];
+            int i = 0;
+            int j = 0;
+            int size = 0;
+            while (i < a.length || j < b.length) {
+                int value = j == b.length || (i < a.length && a[i] <= b[j]) ? a[i++] : b[j++];
+                if (size == 0 || merged[size - 1] != value) {
+                    merged[size++] = value;
+                }
+            }
+            return Arrays.copyOf(merged, size);
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package blackjack.history;
+
+import blackjack.RuleSet;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+// Потоковое чтение истории: файл отображается кусками, каждая запись декодируется
+// в один и тот же HandRecord, так что миллионы записей читаются без выделения памяти.
+public final class HandHistoryReader implements Closeable {
+    @FunctionalInterface
+    public interface Visitor {
+        // false — прекратить чтение
+        boolean visit(long index, HandRecord record);
+    }
+
+    private final FileChannel channel;
+    private final long count;
+    private final int decks;
+    private final RuleSet rules;
+
+    public HandHistoryReader(Path file) throws IOException {
+        channel = FileChannel.open(file, StandardOpenOption.READ);
+        ByteBuffer header = ByteBuffer.allocate(HandHistoryWriter.HEADER_SIZE);
+        channel.read(header, 0);
+        if (header.getInt(0) != HandHistoryWriter.MAGIC || header.getInt(4) != HandHistoryWriter.VERSION
+                || header.getInt(8) != HandRecord.RECORD_SIZE) {
+            channel.close();
+            throw new IOException("Файл не является историей раздач: " + file);
+        }
+        decks = header.getInt(HandHistoryWriter.DECKS_OFFSET);
+        rules = RuleSet.decode(header.getInt(HandHistoryWriter.RULES_OFFSET));
+        long stored = header.getLong(HandHistoryWriter.COUNT_OFFSET);
+        long available = (channel.size() - HandHistoryWriter.HEADER_SIZE) / HandRecord.RECORD_SIZE;
+        count = Math.min(stored, available);
+    }
+
+    public int decks() {
+        return decks;
+    }
+
+    public RuleSet rules() {
+        return rules;
+    }
+
+    public long count() {
+        return count;
+    }
+
+    public void forEach(Visitor visitor) throws IOException {
+        forEach(0, count, visitor);
+    }
+
+    public void forEach(long from, long to, Visitor visitor) throws IOException {
+        HandRecord record = new HandRecord();
+        long index = from;
+        while (index < to) {
+            long chunkIndex = index / HandHistoryWriter.RECORDS_PER_CHUNK;
+            long chunkStart = chunkIndex * HandHistoryWriter.RECORDS_PER_CHUNK;
+            long chunkEnd = Math.min(to, chunkStart + HandHistoryWriter.RECORDS_PER_CHUNK);
+            MappedByteBuffer chunk = channel.map(FileChannel.MapMode.READ_ONLY,
+                    HandHistoryWriter.HEADER_SIZE + chunkStart * HandRecord.RECORD_SIZE,
+                    (chunkEnd - chunkStart) * HandRecord.RECORD_SIZE);
+            for (; index < chunkEnd; index++) {
+                record.readFrom(chunk, (int) (index - chunkStart) * HandRecord.RECORD_SIZE);
+                if (!visitor.visit(index, record)) {
+                    return;
+                }
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
@@ -0,0 +1,129 @@
+package blackjack.history;
+
+import blackjack.RuleSet;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+// Дописывает записи в отображенный в память файл. append — это только запись в память
+// без системных вызовов, сброс на диск (force) делает фоновый поток раз в FLUSH_INTERVAL_MS.
+// append вызывается из одного потока (обычно EDT).
+public final class HandHistoryWriter implements Closeable {
+    static final int MAGIC = 0x424A4848; // "BJHH"
+    static final int VERSION = 1;
+    static final int HEADER_SIZE = 64;
+    static final int DECKS_OFFSET = 12;
+    static final int COUNT_OFFSET = 16;
+    // Код RuleSet; в старых файлах здесь 0, что соответствует классическим правилам
+    static final int RULES_OFFSET = 24;
+    static final int RECORDS_PER_CHUNK = 1 << 16;
+    static final long CHUNK_SIZE = (long) RECORDS_PER_CHUNK * HandRecord.RECORD_SIZE;
+    private static final long FLUSH_INTERVAL_MS = 200;
+
+    private final FileChannel channel;
+    private final MappedByteBuffer header;
+    private final ScheduledExecutorService flusher;
+    private final ConcurrentLinkedQueue<MappedByteBuffer> retired = new ConcurrentLinkedQueue<>();
+    private volatile MappedByteBuffer chunk;
+    private long chunkIndex;
+    private long count;
+    private final long sessionFirst;
+
+    public HandHistoryWriter(Path file, int decks) throws IOException {
+        this(file, decks, RuleSet.classic());
+    }
+
+    // decks и правила нужны для повтора: позиция и seed имеют смысл только для шуза
+    // того же размера, а выплаты — только при тех же правилах
+    public HandHistoryWriter(Path file, int decks, RuleSet rules) throws IOException {
+        channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        header = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_SIZE);
+        if (header.getInt(0) == MAGIC) {
+            if (header.getInt(4) != VERSION || header.getInt(8) != HandRecord.RECORD_SIZE) {
+                channel.close();
+                throw new IOException("Неподдерживаемый формат истории: " + file);
+            }
+            if (header.getInt(DECKS_OFFSET) != decks) {
+                channel.close();
+                throw new IOException("История записана для другого числа колод: " + file);
+            }
+            if (header.getInt(RULES_OFFSET) != rules.encode()) {
+                channel.close();
+                throw new IOException("История записана для других правил (" + RuleSet.decode(header.getInt(RULES_OFFSET))
+                        + "): " + file);
+            }
+            count = header.getLong(COUNT_OFFSET);
+        } else {
+            header.putInt(0, MAGIC);
+            header.putInt(4, VERSION);
+            header.putInt(8, HandRecord.RECORD_SIZE);
+            header.putInt(DECKS_OFFSET, decks);
+            header.putLong(COUNT_OFFSET, 0);
+            header.putInt(RULES_OFFSET, rules.encode());
+        }
+        // Каждое открытие — новая сессия; ее первая запись помечается
+        sessionFirst = count;
+        chunkIndex = count / RECORDS_PER_CHUNK;
+        chunk = mapChunk(chunkIndex);
+
+        flusher = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "hand-history-flush");
+            thread.setDaemon(true);
+            return thread;
+        });
+        flusher.scheduleWithFixedDelay(this::flush, FLUSH_INTERVAL_MS, FLUSH_INTERVAL_MS, TimeUnit.MILLISECONDS);
+    }
+
+    private MappedByteBuffer mapChunk(long index) throws IOException {
+        return channel.map(FileChannel.MapMode.READ_WRITE, HEADER_SIZE + index * CHUNK_SIZE, CHUNK_SIZE);
+    }
+
+    public void append(HandRecord record) throws IOException {
+        long index = count / RECORDS_PER_CHUNK;
+        if (index != chunkIndex) {
+            retired.add(chunk);
+            chunk = mapChunk(index);
+            chunkIndex = index;
+        }
+        int offset = (int) (count % RECORDS_PER_CHUNK) * HandRecord.RECORD_SIZE;
+        record.writeTo(chunk, offset, count == sessionFirst);
+        count++;
+        // Счетчик обновляется после записи, поэтому читатель не увидит недописанную запись
+        header.putLong(COUNT_OFFSET, count);
+    }
+
+    public long count() {
+        return count;
+    }
+
+    private void flush() {
+        MappedByteBuffer old;
+        while ((old = retired.poll()) != null) {
+            old.force();
+        }
+        chunk.force();
+        header.force();
+    }
+
+    @Override
+    public void close() throws IOException {
+        flusher.shutdown();
+        try {
+            flusher.awaitTermination(1, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flush();
+        // Отрезаем неиспользованный хвост последнего отображенного куска
+        channel.truncate(HEADER_SIZE + count * HandRecord.RECORD_SIZE);
+        channel.close();
+    }
+}
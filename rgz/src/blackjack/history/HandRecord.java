@@ -0,0 +1,183 @@
+package blackjack.history;
+
+import java.nio.ByteBuffer;
+
+// Один раунд в истории. Объект переиспользуется: писатель кодирует его в запись
+// фиксированного размера, читатель декодирует запись обратно в тот же объект.
+//
+// Формат записи (RECORD_SIZE байт, порядок байт — big-endian):
+//  0  long  seed перемешивания шуза
+//  8  int   позиция курсора шуза перед раздачей
+// 12  int   ставка (после удвоения — удвоенная)
+// 16  int   выплата (сколько вернулось игроку)
+// 20  int   баланс после раунда
+// 24  byte  исход (RoundEngine.OUTCOME_*)
+// 25  byte  число карт игрока
+// 26  byte  число карт дилера
+// 27  byte  число действий; старший бит — первая раздача сессии (писатель открыт заново)
+// 28  byte[MAX_ACTIONS] действия
+// 36  byte[MAX_CARDS]   карты игрока
+// 50  byte[MAX_CARDS]   карты дилера
+public final class HandRecord {
+    public static final int RECORD_SIZE = 64;
+    public static final int MAX_ACTIONS = 8;
+    public static final int MAX_CARDS = 14;
+
+    public static final byte ACTION_HIT = 1;
+    public static final byte ACTION_STAND = 2;
+    public static final byte ACTION_DOUBLE = 3;
+    public static final byte ACTION_SURRENDER = 4;
+
+    private static final int SESSION_START_FLAG = 0x80;
+    private static final int ACTIONS_OFFSET = 28;
+    private static final int PLAYER_CARDS_OFFSET = ACTIONS_OFFSET + MAX_ACTIONS;
+    private static final int DEALER_CARDS_OFFSET = PLAYER_CARDS_OFFSET + MAX_CARDS;
+
+    private long seed;
+    private int shoePosition;
+    private int bet;
+    private int payout;
+    private int balanceAfter;
+    private int outcome;
+    private final byte[] playerCards = new byte[MAX_CARDS];
+    private final byte[] dealerCards = new byte[MAX_CARDS];
+    private final byte[] actions = new byte[MAX_ACTIONS];
+    private int playerCardCount;
+    private int dealerCardCount;
+    private int actionCount;
+    private boolean sessionStart;
+
+    public void reset(long seed, int shoePosition, int bet) {
+        this.seed = seed;
+        this.shoePosition = shoePosition;
+        this.bet = bet;
+        this.payout = 0;
+        this.balanceAfter = 0;
+        this.outcome = 0;
+        playerCardCount = 0;
+        dealerCardCount = 0;
+        actionCount = 0;
+        sessionStart = false;
+    }
+
+    // Карты сверх MAX_CARDS и действия сверх MAX_ACTIONS не сохраняются,
+    // их можно восстановить повтором раунда по seed и позиции
+    public void addPlayerCard(int card) {
+        if (playerCardCount < MAX_CARDS) {
+            playerCards[playerCardCount++] = (byte) card;
+        }
+    }
+
+    public void addDealerCard(int card) {
+        if (dealerCardCount < MAX_CARDS) {
+            dealerCards[dealerCardCount++] = (byte) card;
+        }
+    }
+
+    public void addAction(byte action) {
+        if (actionCount < MAX_ACTIONS) {
+            actions[actionCount++] = action;
+        }
+    }
+
+    // Удвоение меняет ставку посреди раунда
+    public void setBet(int bet) {
+        this.bet = bet;
+    }
+
+    public void settle(int outcome, int payout, int balanceAfter) {
+        this.outcome = outcome;
+        this.payout = payout;
+        this.balanceAfter = balanceAfter;
+    }
+
+    void writeTo(ByteBuffer buffer, int offset, boolean sessionStart) {
+        buffer.putLong(offset, seed);
+        buffer.putInt(offset + 8, shoePosition);
+        buffer.putInt(offset + 12, bet);
+        buffer.putInt(offset + 16, payout);
+        buffer.putInt(offset + 20, balanceAfter);
+        buffer.put(offset + 24, (byte) outcome);
+        buffer.put(offset + 25, (byte) playerCardCount);
+        buffer.put(offset + 26, (byte) dealerCardCount);
+        buffer.put(offset + 27, (byte) (actionCount | (sessionStart ? SESSION_START_FLAG : 0)));
+        for (int i = 0; i < MAX_ACTIONS; i++) {
+            buffer.put(offset + ACTIONS_OFFSET + i, i < actionCount ? actions[i] : 0);
+        }
+        for (int i = 0; i < MAX_CARDS; i++) {
+            buffer.put(offset + PLAYER_CARDS_OFFSET + i, i < playerCardCount ? playerCards[i] : 0);
+            buffer.put(offset + DEALER_CARDS_OFFSET + i, i < dealerCardCount ? dealerCards[i] : 0);
+        }
+    }
+
+    void readFrom(ByteBuffer buffer, int offset) {
+        seed = buffer.getLong(offset);
+        shoePosition = buffer.getInt(offset + 8);
+        bet = buffer.getInt(offset + 12);
+        payout = buffer.getInt(offset + 16);
+        balanceAfter = buffer.getInt(offset + 20);
+        outcome = buffer.get(offset + 24);
+        playerCardCount = buffer.get(offset + 25);
+        dealerCardCount = buffer.get(offset + 26);
+        int countAndFlags = buffer.get(offset + 27) & 0xFF;
+        actionCount = countAndFlags & ~SESSION_START_FLAG;
+        sessionStart = (countAndFlags & SESSION_START_FLAG) != 0;
+        buffer.get(offset + ACTIONS_OFFSET, actions, 0, MAX_ACTIONS);
+        buffer.get(offset + PLAYER_CARDS_OFFSET, playerCards, 0, MAX_CARDS);
+        buffer.get(offset + DEALER_CARDS_OFFSET, dealerCards, 0, MAX_CARDS);
+    }
+
+    public long seed() {
+        return seed;
+    }
+
+    public int shoePosition() {
+        return shoePosition;
+    }
+
+    public int bet() {
+        return bet;
+    }
+
+    public int payout() {
+        return payout;
+    }
+
+    public int balanceAfter() {
+        return balanceAfter;
+    }
+
+    public int outcome() {
+        return outcome;
+    }
+
+    public int playerCardCount() {
+        return playerCardCount;
+    }
+
+    public int playerCard(int index) {
+        return playerCards[index];
+    }
+
+    public int dealerCardCount() {
+        return dealerCardCount;
+    }
+
+    public int dealerCard(int index) {
+        return dealerCards[index];
+    }
+
+    public int actionCount() {
+        return actionCount;
+    }
+
+    public byte action(int index) {
+        return actions[index];
+    }
+
+    // Баланс первой раздачи сессии не продолжает предыдущую запись: каждый запуск
+    // стола или записи корпуса начинает с начального баланса
+    public boolean sessionStart() {
+        return sessionStart;
+    }
+}
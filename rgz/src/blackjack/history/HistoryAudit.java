@@ -0,0 +1,65 @@
+package blackjack.history;
+
+import blackjack.RoundEngine;
+import blackjack.RuleSet;
+import blackjack.sim.SimulationReport;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Path;
+
+// Сверка истории: выплата соответствует исходу и ставке, а баланс переходит
+// от раунда к раунду без разрывов (кроме сброса после проигрыша всех фишек)
+public final class HistoryAudit {
+    private long rounds;
+    private long totalBet;
+    private long totalPayout;
+    private long payoutMismatches;
+    private long balanceBreaks;
+    private final long[] outcomes = new long[RoundEngine.OUTCOME_COUNT];
+    private boolean hasPrevious;
+    private int previousBalance;
+    private RuleSet rules = RuleSet.classic();
+
+    public static HistoryAudit run(Path file) throws IOException {
+        HistoryAudit audit = new HistoryAudit();
+        try (HandHistoryReader reader = new HandHistoryReader(file)) {
+            audit.rules = reader.rules();
+            reader.forEach((index, record) -> {
+                audit.accept(record);
+                return true;
+            });
+        }
+        return audit;
+    }
+
+    private void accept(HandRecord record) {
+        rounds++;
+        totalBet += record.bet();
+        totalPayout += record.payout();
+        outcomes[record.outcome()]++;
+        // Ставка в записи уже включает удвоение
+        if (rules.payout(record.outcome(), record.bet()) != record.payout()) {
+            payoutMismatches++;
+        }
+        if (hasPrevious && !record.sessionStart() && previousBalance - record.bet() + record.payout() != record.balanceAfter()) {
+            balanceBreaks++;
+        }
+        hasPrevious = true;
+        previousBalance = record.balanceAfter();
+    }
+
+    public long payoutMismatches() {
+        return payoutMismatches;
+    }
+
+    public void print(PrintStream out) {
+        out.printf("Раундов: %,d, правила: %s%n", rounds, rules);
+        out.printf("Ставки: %,d, выплаты: %,d, результат игрока: %+,d%n", totalBet, totalPayout, totalPayout - totalBet);
+        for (int outcome = 0; outcome < outcomes.length; outcome++) {
+            out.printf("  %-16s %,d%n", SimulationReport.outcomeName(outcome), outcomes[outcome]);
+        }
+        out.printf("Несовпадений выплат: %,d%n", payoutMismatches);
+        out.printf("Разрывов баланса (сбросы и пропуски): %,d%n", balanceBreaks);
+    }
+}
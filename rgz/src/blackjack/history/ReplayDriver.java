@@ -0,0 +1,138 @@
+package blackjack.history;
+
+import blackjack.Hands;
+import blackjack.RoundEngine;
+import blackjack.RuleSet;
+import blackjack.Shoe;
+import blackjack.ShuffleSource;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Path;
+
+// Повторяет записанные раунды через RoundEngine: шуз восстанавливается по seed и позиции,
+// действия игрока применяются заново, после чего сверяются карты, исход, выплата и баланс.
+public final class ReplayDriver {
+    private static final int MAX_REPORTED = 10;
+
+    private final RoundEngine engine;
+    private long rounds;
+    private long mismatches;
+    private long skipped;
+    private final long[] firstMismatches = new long[MAX_REPORTED];
+    private boolean hasPrevious;
+    private int previousBalance;
+
+    private ReplayDriver(int decks, RuleSet rules) {
+        // Источник seed не используется: каждый раунд задает seed сам
+        engine = new RoundEngine(new Shoe(decks, 1.0, ShuffleSource.seeded(0)), rules);
+    }
+
+    public static ReplayDriver run(Path file) throws IOException {
+        try (HandHistoryReader reader = new HandHistoryReader(file)) {
+            ReplayDriver driver = new ReplayDriver(reader.decks(), reader.rules());
+            reader.forEach((index, record) -> {
+                driver.replay(index, record);
+                return true;
+            });
+            return driver;
+        }
+    }
+
+    public long rounds() {
+        return rounds;
+    }
+
+    public long mismatches() {
+        return mismatches;
+    }
+
+    private void replay(long index, HandRecord record) {
+        rounds++;
+        int verdict = verify(record);
+        if (verdict < 0) {
+            skipped++;
+        } else if (verdict > 0 || !balanceMatches(record)) {
+            if (mismatches < MAX_REPORTED) {
+                firstMismatches[(int) mismatches] = index;
+            }
+            mismatches++;
+        }
+        hasPrevious = true;
+        previousBalance = record.balanceAfter();
+    }
+
+    // 0 — совпало, 1 — расхождение, -1 — запись обрезана и не может быть проверена
+    private int verify(HandRecord record) {
+        engine.startRoundAt(record.seed(), record.shoePosition());
+        int player = 0;
+        int dealer = 0;
+        if (!sameCard(record.playerCard(player++), engine.dealPlayer())
+                || !sameCard(record.dealerCard(dealer++), engine.dealDealer())
+                || !sameCard(record.playerCard(player++), engine.dealPlayer())
+                || !sameCard(record.dealerCard(dealer++), engine.dealDealer())) {
+            return 1;
+        }
+        boolean stood = false;
+        boolean surrendered = false;
+        for (int i = 0; i < record.actionCount(); i++) {
+            byte action = record.action(i);
+            if (action == HandRecord.ACTION_HIT || action == HandRecord.ACTION_DOUBLE) {
+                int card = action == HandRecord.ACTION_DOUBLE ? engine.doubleDown() : engine.dealPlayer();
+                if (player < record.playerCardCount() && !sameCard(record.playerCard(player), card)) {
+                    return 1;
+                }
+                player++;
+                stood = action == HandRecord.ACTION_DOUBLE && !Hands.isBust(engine.playerHand());
+            } else if (action == HandRecord.ACTION_STAND) {
+                stood = true;
+            } else if (action == HandRecord.ACTION_SURRENDER) {
+                engine.surrender();
+                surrendered = true;
+            }
+        }
+        if (!stood && !surrendered && !Hands.isBust(engine.playerHand())) {
+            return record.actionCount() == HandRecord.MAX_ACTIONS ? -1 : 1;
+        }
+        if (stood) {
+            while (engine.dealerMustHit()) {
+                int card = engine.dealDealer();
+                if (dealer < record.dealerCardCount() && !sameCard(record.dealerCard(dealer), card)) {
+                    return 1;
+                }
+                dealer++;
+            }
+        }
+        int outcome = engine.outcome();
+        if (outcome != record.outcome() || engine.rules().payout(outcome, record.bet()) != record.payout()) {
+            return 1;
+        }
+        return 0;
+    }
+
+    private static boolean sameCard(int recorded, int dealt) {
+        return recorded == dealt;
+    }
+
+    // После проигрыша всех фишек стол сбрасывает баланс до начального; новая сессия
+    // в том же файле начинает с начального баланса, а не с баланса предыдущей записи
+    private boolean balanceMatches(HandRecord record) {
+        if (record.sessionStart()) {
+            return RoundRecorder.START_BALANCE - record.bet() + record.payout() == record.balanceAfter();
+        }
+        if (!hasPrevious) {
+            return true;
+        }
+        int before = previousBalance <= 0 ? RoundRecorder.START_BALANCE : previousBalance;
+        return before - record.bet() + record.payout() == record.balanceAfter();
+    }
+
+    public void print(PrintStream out, long elapsedNanos) {
+        double seconds = elapsedNanos / 1e9;
+        out.printf("Повторено раундов: %,d за %.2f с (%,.0f раундов/с)%n", rounds, seconds, rounds / seconds);
+        out.printf("Расхождений: %,d, не проверено (обрезанные записи): %,d%n", mismatches, skipped);
+        for (int i = 0; i < Math.min(mismatches, MAX_REPORTED); i++) {
+            out.printf("  расхождение в записи %,d%n", firstMismatches[i]);
+        }
+    }
+}
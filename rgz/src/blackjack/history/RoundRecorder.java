@@ -0,0 +1,87 @@
+package blackjack.history;
+
+import blackjack.Hands;
+import blackjack.RoundEngine;
+import blackjack.RuleSet;
+import blackjack.Shoe;
+import blackjack.ShuffleSource;
+import blackjack.Strategy;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+// Запись эталонного корпуса раздач без интерфейса: те же правила, что у стола,
+// баланс 1000 и сброс при проигрыше всех фишек, как в автоигре
+public final class RoundRecorder {
+    public static final int START_BALANCE = 1000;
+
+    private RoundRecorder() {
+    }
+
+    // Играет раунд стратегией и заполняет запись; возвращает выплату. Удвоение возможно,
+    // только если на балансе есть еще одна ставка (canDouble), как за столом; после
+    // удвоения ставка в записи — удвоенная
+    public static int playRound(RoundEngine engine, Strategy strategy, int bet, boolean canDouble, HandRecord record) {
+        engine.startRound();
+        Shoe shoe = engine.shoe();
+        record.reset(shoe.shuffleSeed(), shoe.position(), bet);
+        record.addPlayerCard(engine.dealPlayer());
+        record.addDealerCard(engine.dealDealer());
+        record.addPlayerCard(engine.dealPlayer());
+        record.addDealerCard(engine.dealDealer());
+        if (engine.canSurrender() && strategy.shouldSurrender(engine)) {
+            record.addAction(HandRecord.ACTION_SURRENDER);
+            engine.surrender();
+            return engine.rules().payout(engine.outcome(), bet);
+        }
+        boolean stands;
+        if (canDouble && engine.canDouble() && strategy.shouldDouble(engine)) {
+            record.addAction(HandRecord.ACTION_DOUBLE);
+            record.setBet(bet * 2);
+            record.addPlayerCard(engine.doubleDown());
+            stands = !Hands.isBust(engine.playerHand());
+        } else {
+            while (!Hands.isBust(engine.playerHand()) && strategy.shouldHit(engine)) {
+                record.addAction(HandRecord.ACTION_HIT);
+                record.addPlayerCard(engine.dealPlayer());
+            }
+            stands = !Hands.isBust(engine.playerHand());
+            if (stands) {
+                record.addAction(HandRecord.ACTION_STAND);
+            }
+        }
+        if (stands) {
+            while (engine.dealerMustHit()) {
+                record.addDealerCard(engine.dealDealer());
+            }
+        }
+        return engine.rules().payout(engine.outcome(), record.bet());
+    }
+
+    public static void recordCorpus(Path file, long rounds, long seed, Strategy strategy, int bet, int decks)
+            throws IOException {
+        recordCorpus(file, rounds, seed, strategy, RuleSet.classic(), bet, decks);
+    }
+
+    // Запись хранит одну руку, поэтому сплит в корпусе не используется
+    public static void recordCorpus(Path file, long rounds, long seed, Strategy strategy, RuleSet rules, int bet, int decks)
+            throws IOException {
+        RuleSet tableRules = rules.withMaxHands(1);
+        RoundEngine engine = new RoundEngine(new Shoe(decks, Shoe.DEFAULT_PENETRATION, ShuffleSource.seeded(seed)), tableRules);
+        HandRecord record = new HandRecord();
+        int balance = START_BALANCE;
+        try (HandHistoryWriter writer = new HandHistoryWriter(file, decks, tableRules)) {
+            for (long i = 0; i < rounds; i++) {
+                if (balance <= 0) {
+                    balance = START_BALANCE;
+                }
+                int roundBet = Math.min(bet, balance);
+                balance -= roundBet;
+                int payout = playRound(engine, strategy, roundBet, balance >= roundBet, record);
+                balance += payout - (record.bet() - roundBet);
+                record.settle(engine.outcome(), payout, balance);
+                writer.append(record);
+            }
+        }
+    }
+}
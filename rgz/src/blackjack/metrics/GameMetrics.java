@@ -0,0 +1,216 @@
+package blackjack.metrics;
+
+import blackjack.RoundEngine;
+import blackjack.sim.SimulationReport;
+
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.JMException;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+// Метрики процесса: счетчики на LongAdder и полосатые гистограммы, запись без блокировок,
+// поэтому их можно не выключать. register() публикует MBean и запускает фоновый
+// поток, который раз в секунду считает раздачи в секунду и, если задано
+// -Dblackjack.metrics.dump=<секунды>, печатает текстовую сводку.
+public final class GameMetrics implements GameMetricsMXBean {
+    private static final GameMetrics INSTANCE = new GameMetrics();
+    private static final String OBJECT_NAME = "blackjack:type=GameMetrics";
+
+    private final LongAdder hands = new LongAdder();
+    private final LongAdder[] outcomes = new LongAdder[RoundEngine.OUTCOME_COUNT];
+    private final LongAdder slowEdtEvents = new LongAdder();
+    private final StripedHistogram edtLatency = new StripedHistogram();
+    private final StripedHistogram frameTime = new StripedHistogram();
+    private final StripedHistogram betToFirstCard = new StripedHistogram();
+    private final StripedHistogram imageLoad = new StripedHistogram();
+    private final StripedHistogram imageScale = new StripedHistogram();
+
+    // Время запуска меряется один раз и при reset() не сбрасывается
+    private volatile long startupMillis = -1;
+    private volatile long cardsReadyMillis = -1;
+
+    private ScheduledExecutorService ticker;
+    private volatile double handsPerSecond;
+    private long lastHands;
+    private long lastSample;
+
+    private GameMetrics() {
+        for (int i = 0; i < outcomes.length; i++) {
+            outcomes[i] = new LongAdder();
+        }
+    }
+
+    public static GameMetrics get() {
+        return INSTANCE;
+    }
+
+    public synchronized void register() {
+        if (ticker != null) {
+            return;
+        }
+        try {
+            ManagementFactory.getPlatformMBeanServer().registerMBean(this, new ObjectName(OBJECT_NAME));
+        } catch (InstanceAlreadyExistsException e) {
+            // Уже зарегистрирован, например, другим столом этого процесса
+        } catch (JMException e) {
+            System.err.println("Не удалось зарегистрировать метрики: " + e.getMessage());
+        }
+        ticker = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "blackjack-metrics");
+            thread.setDaemon(true);
+            return thread;
+        });
+        lastSample = System.nanoTime();
+        ticker.scheduleAtFixedRate(this::sampleRate, 1, 1, TimeUnit.SECONDS);
+        long dumpSeconds = Long.getLong("blackjack.metrics.dump", 0);
+        if (dumpSeconds > 0) {
+            ticker.scheduleAtFixedRate(() -> System.out.print(dump()), dumpSeconds, dumpSeconds, TimeUnit.SECONDS);
+        }
+    }
+
+    private void sampleRate() {
+        long now = System.nanoTime();
+        long total = hands.sum();
+        handsPerSecond = Math.max(0, total - lastHands) * 1e9 / (now - lastSample);
+        lastHands = total;
+        lastSample = now;
+    }
+
+    public void recordHand(int outcome) {
+        hands.increment();
+        outcomes[outcome].increment();
+    }
+
+    public void recordEdtLatency(long nanos) {
+        edtLatency.record(nanos);
+    }
+
+    // Событие EDT, обработка которого превысила порог сторожа
+    public void recordSlowEdtEvent() {
+        slowEdtEvents.increment();
+    }
+
+    public void recordFrame(long nanos) {
+        frameTime.record(nanos);
+    }
+
+    public void recordBetToFirstCard(long nanos) {
+        betToFirstCard.record(nanos);
+    }
+
+    public void recordImageLoad(long nanos) {
+        imageLoad.record(nanos);
+    }
+
+    public void recordImageScale(long nanos) {
+        imageScale.record(nanos);
+    }
+
+    // Первый отрисованный кадр окна
+    public void recordFirstFrame() {
+        if (startupMillis < 0) {
+            startupMillis = ManagementFactory.getRuntimeMXBean().getUptime();
+        }
+    }
+
+    // Атлас карт готов, первая раздача не будет ждать изображений
+    public void recordCardsReady() {
+        if (cardsReadyMillis < 0) {
+            cardsReadyMillis = ManagementFactory.getRuntimeMXBean().getUptime();
+        }
+    }
+
+    @Override
+    public long getHandsPlayed() {
+        return hands.sum();
+    }
+
+    @Override
+    public double getHandsPerSecond() {
+        return handsPerSecond;
+    }
+
+    @Override
+    public Map<String, Long> getOutcomeCounts() {
+        Map<String, Long> counts = new LinkedHashMap<>();
+        for (int outcome = 0; outcome < outcomes.length; outcome++) {
+            counts.put(SimulationReport.outcomeName(outcome), outcomes[outcome].sum());
+        }
+        return counts;
+    }
+
+    @Override
+    public HistogramSummary getEdtLatency() {
+        return HistogramSummary.of(edtLatency.snapshot());
+    }
+
+    @Override
+    public long getSlowEdtEvents() {
+        return slowEdtEvents.sum();
+    }
+
+    @Override
+    public HistogramSummary getFrameTime() {
+        return HistogramSummary.of(frameTime.snapshot());
+    }
+
+    @Override
+    public HistogramSummary getBetToFirstCard() {
+        return HistogramSummary.of(betToFirstCard.snapshot());
+    }
+
+    @Override
+    public HistogramSummary getImageLoad() {
+        return HistogramSummary.of(imageLoad.snapshot());
+    }
+
+    @Override
+    public HistogramSummary getImageScale() {
+        return HistogramSummary.of(imageScale.snapshot());
+    }
+
+    @Override
+    public long getStartupMillis() {
+        return startupMillis;
+    }
+
+    @Override
+    public long getCardsReadyMillis() {
+        return cardsReadyMillis;
+    }
+
+    @Override
+    public String dump() {
+        StringBuilder out = new StringBuilder();
+        out.append(String.format("Раздач: %,d (%.1f в секунду)%n", getHandsPlayed(), getHandsPerSecond()));
+        getOutcomeCounts().forEach((name, count) -> out.append(String.format("  %-16s %,d%n", name, count)));
+        out.append("Задержка EDT: ").append(getEdtLatency()).append(System.lineSeparator());
+        out.append(String.format("Долгих событий EDT: %,d%n", getSlowEdtEvents()));
+        out.append("Время кадра: ").append(getFrameTime()).append(System.lineSeparator());
+        out.append("От ставки до первой карты: ").append(getBetToFirstCard()).append(System.lineSeparator());
+        out.append("Загрузка изображений: ").append(getImageLoad()).append(System.lineSeparator());
+        out.append("Масштабирование изображений: ").append(getImageScale()).append(System.lineSeparator());
+        out.append(String.format("Запуск: первый кадр %d мс, карты готовы %d мс%n", startupMillis, cardsReadyMillis));
+        return out.toString();
+    }
+
+    @Override
+    public void reset() {
+        hands.reset();
+        for (LongAdder outcome : outcomes) {
+            outcome.reset();
+        }
+        edtLatency.reset();
+        slowEdtEvents.reset();
+        frameTime.reset();
+        betToFirstCard.reset();
+        imageLoad.reset();
+        imageScale.reset();
+    }
+}
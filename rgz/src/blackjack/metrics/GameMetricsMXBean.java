@@ -0,0 +1,33 @@
+package blackjack.metrics;
+
+import java.util.Map;
+
+// Атрибуты, видимые в JConsole / VisualVM под именем blackjack:type=GameMetrics
+public interface GameMetricsMXBean {
+    long getHandsPlayed();
+
+    double getHandsPerSecond();
+
+    Map<String, Long> getOutcomeCounts();
+
+    HistogramSummary getEdtLatency();
+
+    long getSlowEdtEvents();
+
+    HistogramSummary getFrameTime();
+
+    HistogramSummary getBetToFirstCard();
+
+    HistogramSummary getImageLoad();
+
+    HistogramSummary getImageScale();
+
+    // Миллисекунды от старта JVM; -1, пока событие не наступило
+    long getStartupMillis();
+
+    long getCardsReadyMillis();
+
+    String dump();
+
+    void reset();
+}
@@ -0,0 +1,52 @@
+package blackjack.metrics;
+
+import java.beans.ConstructorProperties;
+
+// Сводка гистограммы для JMX, значения в микросекундах
+public final class HistogramSummary {
+    private final long count;
+    private final double p50Micros;
+    private final double p99Micros;
+    private final double p999Micros;
+    private final double maxMicros;
+
+    @ConstructorProperties({"count", "p50Micros", "p99Micros", "p999Micros", "maxMicros"})
+    public HistogramSummary(long count, double p50Micros, double p99Micros, double p999Micros, double maxMicros) {
+        this.count = count;
+        this.p50Micros = p50Micros;
+        this.p99Micros = p99Micros;
+        this.p999Micros = p999Micros;
+        this.maxMicros = maxMicros;
+    }
+
+    static HistogramSummary of(LatencyHistogram histogram) {
+        return new HistogramSummary(histogram.count(), histogram.percentile(50) / 1e3,
+                histogram.percentile(99) / 1e3, histogram.percentile(99.9) / 1e3, histogram.max() / 1e3);
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public double getP50Micros() {
+        return p50Micros;
+    }
+
+    public double getP99Micros() {
+        return p99Micros;
+    }
+
+    public double getP999Micros() {
+        return p999Micros;
+    }
+
+    public double getMaxMicros() {
+        return maxMicros;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("n=%,d p50 %.1f мкс, p99 %.1f мкс, p999 %.1f мкс, максимум %.1f мкс",
+                count, p50Micros, p99Micros, p999Micros, maxMicros);
+    }
+}
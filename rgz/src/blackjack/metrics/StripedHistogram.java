@@ -0,0 +1,51 @@
+package blackjack.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+
+// Потокобезопасная версия LatencyHistogram для постоянной записи из разных потоков:
+// поток пишет в свою полосу по идентификатору, поэтому конкуренция за строки кэша
+// почти отсутствует. Чтение собирает полосы в обычную LatencyHistogram.
+public final class StripedHistogram {
+    private final AtomicLongArray[] stripes;
+    private final int mask;
+    private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+    public StripedHistogram() {
+        int stripeCount = Integer.highestOneBit(Math.min(64, Runtime.getRuntime().availableProcessors()) * 2 - 1);
+        stripes = new AtomicLongArray[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new AtomicLongArray(LatencyHistogram.BUCKETS);
+        }
+        mask = stripeCount - 1;
+    }
+
+    public void record(long nanos) {
+        long value = Math.max(nanos, 0);
+        stripes[(int) Thread.currentThread().threadId() & mask].getAndIncrement(LatencyHistogram.index(value));
+        max.accumulate(value);
+    }
+
+    public LatencyHistogram snapshot() {
+        LatencyHistogram snapshot = new LatencyHistogram();
+        long maxValue = max.get();
+        for (AtomicLongArray stripe : stripes) {
+            for (int i = 0; i < LatencyHistogram.BUCKETS; i++) {
+                long count = stripe.get(i);
+                if (count != 0) {
+                    snapshot.add(i, count, maxValue);
+                }
+            }
+        }
+        return snapshot;
+    }
+
+    public void reset() {
+        for (AtomicLongArray stripe : stripes) {
+            for (int i = 0; i < LatencyHistogram.BUCKETS; i++) {
+                stripe.set(i, 0);
+            }
+        }
+        max.reset();
+    }
+}
@@ -0,0 +1,148 @@
+package blackjack.server;
+
+import blackjack.RuleSet;
+import blackjack.Shoe;
+import blackjack.ShuffleSource;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Сервер столов: каждое соединение — отдельный стол и отдельный виртуальный поток
+// с блокирующим вводом-выводом. Протокол строковый, по одной команде на строку:
+// BET n, HIT, STAND, BALANCE, QUIT. Входа по паролю нет, каждое соединение
+// получает стол с балансом, поэтому по умолчанию сервер слушает только loopback.
+public final class GameServer implements Closeable {
+    private final ServerSocket serverSocket;
+    private final ExecutorService sessions = Executors.newVirtualThreadPerTaskExecutor();
+    private final SplittableRandom seeds;
+    private final int decks;
+    private final RuleSet rules;
+    private final AtomicLong tablesOpened = new AtomicLong();
+    private final AtomicLong commands = new AtomicLong();
+
+    public GameServer(int port, long seed, int decks) throws IOException {
+        this(port, seed, decks, RuleSet.classic());
+    }
+
+    // Все столы сервера играют по одним правилам; протокол без удвоения, сплита и сдачи
+    public GameServer(int port, long seed, int decks, RuleSet rules) throws IOException {
+        this(InetAddress.getLoopbackAddress(), port, seed, decks, rules);
+    }
+
+    // address — адрес для прослушивания; шире loopback только явно
+    public GameServer(InetAddress address, int port, long seed, int decks, RuleSet rules) throws IOException {
+        this.serverSocket = new ServerSocket();
+        this.serverSocket.bind(new InetSocketAddress(address, port), 1024);
+        this.seeds = new SplittableRandom(seed);
+        this.decks = decks;
+        this.rules = rules;
+    }
+
+    public InetAddress address() {
+        return serverSocket.getInetAddress();
+    }
+
+    public int port() {
+        return serverSocket.getLocalPort();
+    }
+
+    public long tablesOpened() {
+        return tablesOpened.get();
+    }
+
+    public long commands() {
+        return commands.get();
+    }
+
+    // Цикл приема соединений; возвращается после close()
+    public void serve() {
+        while (!serverSocket.isClosed()) {
+            try {
+                Socket socket = serverSocket.accept();
+                socket.setTcpNoDelay(true);
+                // SplittableRandom не потокобезопасен, поэтому делим его в потоке приема
+                Table table = new Table(decks, rules, ShuffleSource.from(seeds.split()));
+                tablesOpened.incrementAndGet();
+                sessions.execute(() -> session(socket, table));
+            } catch (IOException e) {
+                if (!serverSocket.isClosed()) {
+                    System.err.println("Ошибка приема соединения: " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    private void session(Socket socket, Table table) {
+        try (socket;
+             BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+             BufferedWriter out = new BufferedWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = in.readLine()) != null) {
+                commands.incrementAndGet();
+                String reply = handle(table, line.trim());
+                if (reply == null) {
+                    break;
+                }
+                out.write(reply);
+                out.write('\n');
+                out.flush();
+            }
+        } catch (IOException e) {
+            // Клиент отключился — стол просто закрывается
+        }
+    }
+
+    static String handle(Table table, String command) {
+        if (command.startsWith("BET ")) {
+            try {
+                return table.bet(Integer.parseInt(command.substring(4).trim()));
+            } catch (NumberFormatException e) {
+                return "ERR некорректная ставка";
+            }
+        }
+        switch (command) {
+            case "HIT":
+                return table.hit();
+            case "STAND":
+                return table.stand();
+            case "BALANCE":
+                return table.balance();
+            case "QUIT":
+                return null;
+            default:
+                return "ERR неизвестная команда: " + command;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        serverSocket.close();
+        sessions.shutdownNow();
+    }
+
+    public static void main(String[] args) throws IOException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : 2121;
+        long seed = args.length > 1 ? Long.parseLong(args[1]) : System.nanoTime();
+        int decks = args.length > 2 ? Integer.parseInt(args[2]) : Shoe.DEFAULT_DECKS;
+        RuleSet rules = args.length > 3 ? RuleSet.parse(args[3]) : RuleSet.classic();
+        InetAddress address = args.length > 4 ? InetAddress.getByName(args[4]) : InetAddress.getLoopbackAddress();
+        try (GameServer server = new GameServer(address, port, seed, decks, rules)) {
+            System.out.printf("Сервер столов слушает %s:%d, правила %s%n",
+                    server.address().getHostAddress(), server.port(), rules);
+            server.serve();
+        }
+    }
+}
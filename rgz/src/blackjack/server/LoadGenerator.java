@@ -0,0 +1,132 @@
+package blackjack.server;
+
+import blackjack.metrics.LatencyHistogram;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PrintStream;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+// Нагрузочный клиент: много соединений на виртуальных потоках, каждое играет
+// раунды "ставка, брать до 17, хватит" и замеряет задержку каждой команды.
+public final class LoadGenerator {
+    private static final int BET = 10;
+
+    private final String host;
+    private final int port;
+
+    public LoadGenerator(String host, int port) {
+        this.host = host;
+        this.port = port;
+    }
+
+    public static final class Result {
+        final LatencyHistogram latency = new LatencyHistogram();
+        long hands;
+        long errors;
+
+        void merge(Result other) {
+            latency.merge(other.latency);
+            hands += other.hands;
+            errors += other.errors;
+        }
+    }
+
+    public Result run(int connections, int handsPerConnection) throws InterruptedException {
+        Result total = new Result();
+        try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<Result>> futures = new ArrayList<>(connections);
+            for (int i = 0; i < connections; i++) {
+                futures.add(clients.submit(() -> play(handsPerConnection)));
+            }
+            for (Future<Result> future : futures) {
+                try {
+                    total.merge(future.get());
+                } catch (ExecutionException e) {
+                    total.errors++;
+                }
+            }
+        }
+        return total;
+    }
+
+    private Result play(int hands) throws IOException {
+        Result result = new Result();
+        try (Socket socket = new Socket(host, port);
+             BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+             BufferedWriter out = new BufferedWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8))) {
+            socket.setTcpNoDelay(true);
+            for (int hand = 0; hand < hands; hand++) {
+                String reply = call(in, out, "BET " + BET, result);
+                if (!reply.startsWith("DEAL ")) {
+                    result.errors++;
+                    continue;
+                }
+                int score = Integer.parseInt(reply.split(" ")[1]);
+                while (score < 17) {
+                    reply = call(in, out, "HIT", result);
+                    if (!reply.startsWith("CARD ")) {
+                        break;
+                    }
+                    score = Integer.parseInt(reply.substring(5));
+                }
+                if (!reply.startsWith("RESULT ")) {
+                    reply = call(in, out, "STAND", result);
+                }
+                if (reply.startsWith("RESULT ")) {
+                    result.hands++;
+                } else {
+                    result.errors++;
+                }
+            }
+            out.write("QUIT\n");
+            out.flush();
+        }
+        return result;
+    }
+
+    private static String call(BufferedReader in, BufferedWriter out, String command, Result result) throws IOException {
+        long start = System.nanoTime();
+        out.write(command);
+        out.write('\n');
+        out.flush();
+        String reply = in.readLine();
+        result.latency.record(System.nanoTime() - start);
+        if (reply == null) {
+            throw new IOException("Сервер закрыл соединение");
+        }
+        return reply;
+    }
+
+    public static void print(PrintStream out, Result result, long elapsedNanos) {
+        double seconds = elapsedNanos / 1e9;
+        LatencyHistogram latency = result.latency;
+        out.printf("Раздач: %,d за %.2f с (%,.0f раздач/с), команд: %,d, ошибок: %,d%n",
+                result.hands, seconds, result.hands / seconds, latency.count(), result.errors);
+        out.printf("Задержка команды: p50 %.1f мкс, p99 %.1f мкс, p999 %.1f мкс, максимум %.1f мкс%n",
+                latency.percentile(50) / 1e3, latency.percentile(99) / 1e3,
+                latency.percentile(99.9) / 1e3, latency.max() / 1e3);
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        String host = args.length > 0 ? args[0] : InetAddress.getLoopbackAddress().getHostAddress();
+        int port = args.length > 1 ? Integer.parseInt(args[1]) : 2121;
+        int connections = args.length > 2 ? Integer.parseInt(args[2]) : 1000;
+        int hands = args.length > 3 ? Integer.parseInt(args[3]) : 100;
+        System.out.printf("Нагрузка: %d соединений по %d раздач на %s:%d%n", connections, hands, host, port);
+        long start = System.nanoTime();
+        Result result = new LoadGenerator(host, port).run(connections, hands);
+        print(System.out, result, System.nanoTime() - start);
+    }
+}
@@ -0,0 +1,75 @@
+package blackjack.server;
+
+import blackjack.Cards;
+import blackjack.Hands;
+import blackjack.RoundEngine;
+import blackjack.RuleSet;
+import blackjack.Shoe;
+import blackjack.ShuffleSource;
+
+// Стол сервера: собственные шуз, баланс и ставка. Стол принадлежит одной сессии,
+// поэтому синхронизация не нужна. Ответы — одна строка текстового протокола.
+final class Table {
+    static final int START_BALANCE = 1000;
+
+    private final RoundEngine engine;
+    private int balance = START_BALANCE;
+    private int bet;
+    private boolean playerTurn;
+
+    Table(int decks, RuleSet rules, ShuffleSource source) {
+        engine = new RoundEngine(new Shoe(decks, Shoe.DEFAULT_PENETRATION, source), rules);
+    }
+
+    // BET n -> DEAL <очки игрока> <открытая карта дилера> <баланс>
+    String bet(int amount) {
+        if (playerTurn) {
+            return "ERR раунд уже идет";
+        }
+        if (balance <= 0) {
+            balance = START_BALANCE;
+        }
+        if (amount <= 0 || amount > balance) {
+            return "ERR ставка должна быть от 1 до " + balance;
+        }
+        bet = amount;
+        balance -= amount;
+        engine.startRound();
+        engine.dealInitial();
+        playerTurn = true;
+        return "DEAL " + engine.playerScore() + " " + Cards.points(engine.dealerUpcard()) + " " + balance;
+    }
+
+    // HIT -> CARD <очки> | RESULT ...
+    String hit() {
+        if (!playerTurn) {
+            return "ERR нет активного раунда";
+        }
+        engine.dealPlayer();
+        if (Hands.isBust(engine.playerHand())) {
+            return settle();
+        }
+        return "CARD " + engine.playerScore();
+    }
+
+    // STAND -> RESULT <исход> <выплата> <очки дилера> <баланс>
+    String stand() {
+        if (!playerTurn) {
+            return "ERR нет активного раунда";
+        }
+        engine.playDealer();
+        return settle();
+    }
+
+    String balance() {
+        return "BALANCE " + balance;
+    }
+
+    private String settle() {
+        playerTurn = false;
+        int outcome = engine.outcome();
+        int payout = engine.rules().payout(outcome, bet);
+        balance += payout;
+        return "RESULT " + outcome + " " + payout + " " + engine.dealerScore() + " " + balance;
+    }
+}
@@ -0,0 +1,31 @@
+package blackjack.sim;
+
+import java.io.PrintStream;
+
+public final class BankrollReport {
+    // Точки кривой риска разорения — доли сессии
+    private static final int CURVE_POINTS = 10;
+
+    private BankrollReport() {
+    }
+
+    public static void print(PrintStream out, int chip, int system, BankrollResult result, long elapsedNanos) {
+        double seconds = elapsedNanos / 1e9;
+        out.printf("Фишка %d, система %s: %,d траекторий по %,d раундов за %.2f с%n",
+                chip, BankrollSimulator.systemName(system), result.trajectories(), result.sessionRounds(), seconds);
+        out.printf("  Риск разорения: %.3f%%, средний итог %.0f (у выживших %.0f)%n",
+                result.ruinProbability() * 100, result.meanFinalBalance(), result.meanSurvivorBalance());
+        StringBuilder curve = new StringBuilder("  Разорились к раунду:");
+        for (int point = 1; point <= CURVE_POINTS; point++) {
+            int round = Math.max(1, result.sessionRounds() * point / CURVE_POINTS);
+            curve.append(String.format(" %d: %.2f%%", round, result.ruinProbability(round) * 100));
+        }
+        out.println(curve);
+        out.printf("  Длина сессии: в среднем %.0f, p10 %d, p50 %d, p90 %d раундов%n",
+                result.meanSessionLength(), result.sessionLengthPercentile(10),
+                result.sessionLengthPercentile(50), result.sessionLengthPercentile(90));
+        out.printf("  Максимальная просадка: в среднем %.0f, p50 <=%d, p90 <=%d, p99 <=%d фишек%n",
+                result.meanDrawdown(), result.drawdownPercentile(50),
+                result.drawdownPercentile(90), result.drawdownPercentile(99));
+    }
+}
@@ -0,0 +1,131 @@
+package blackjack.sim;
+
+// Итог траекторий баланса: когда случилось разорение (по раундам сессии),
+// распределение максимальной просадки и средний итоговый баланс выживших.
+public final class BankrollResult {
+    // Просадка считается корзинами по DRAWDOWN_STEP фишек, последняя собирает хвост
+    static final int DRAWDOWN_STEP = 10;
+    private static final int DRAWDOWN_BUCKETS = 2001;
+
+    private final int sessionRounds;
+    private long trajectories;
+    private long ruined;
+    // ruinsAtRound[r] — разорились ровно в раунде r
+    private final long[] ruinsAtRound;
+    private final long[] drawdowns = new long[DRAWDOWN_BUCKETS];
+    private long drawdownSum;
+    private long survivorBalanceSum;
+
+    BankrollResult(int sessionRounds) {
+        this.sessionRounds = sessionRounds;
+        this.ruinsAtRound = new long[sessionRounds + 1];
+    }
+
+    void recordRuin(int round, int drawdown) {
+        trajectories++;
+        ruined++;
+        ruinsAtRound[round]++;
+        recordDrawdown(drawdown);
+    }
+
+    void recordSurvivor(int balance, int drawdown) {
+        trajectories++;
+        survivorBalanceSum += balance;
+        recordDrawdown(drawdown);
+    }
+
+    private void recordDrawdown(int drawdown) {
+        drawdowns[Math.min(drawdown / DRAWDOWN_STEP, DRAWDOWN_BUCKETS - 1)]++;
+        drawdownSum += drawdown;
+    }
+
+    BankrollResult merge(BankrollResult other) {
+        trajectories += other.trajectories;
+        ruined += other.ruined;
+        for (int round = 0; round <= sessionRounds; round++) {
+            ruinsAtRound[round] += other.ruinsAtRound[round];
+        }
+        for (int i = 0; i < DRAWDOWN_BUCKETS; i++) {
+            drawdowns[i] += other.drawdowns[i];
+        }
+        drawdownSum += other.drawdownSum;
+        survivorBalanceSum += other.survivorBalanceSum;
+        return this;
+    }
+
+    public long trajectories() {
+        return trajectories;
+    }
+
+    public int sessionRounds() {
+        return sessionRounds;
+    }
+
+    public double ruinProbability() {
+        return trajectories == 0 ? 0 : (double) ruined / trajectories;
+    }
+
+    // Доля траекторий, разорившихся не позже раунда round — точка кривой риска разорения
+    public double ruinProbability(int round) {
+        long count = 0;
+        for (int r = 1; r <= Math.min(round, sessionRounds); r++) {
+            count += ruinsAtRound[r];
+        }
+        return trajectories == 0 ? 0 : (double) count / trajectories;
+    }
+
+    // Длина сессии — раунд разорения или вся сессия для выживших
+    public double meanSessionLength() {
+        if (trajectories == 0) {
+            return 0;
+        }
+        long total = (trajectories - ruined) * sessionRounds;
+        for (int round = 1; round <= sessionRounds; round++) {
+            total += ruinsAtRound[round] * round;
+        }
+        return (double) total / trajectories;
+    }
+
+    public int sessionLengthPercentile(double percentile) {
+        long rank = rank(percentile);
+        long seen = 0;
+        for (int round = 1; round <= sessionRounds; round++) {
+            seen += ruinsAtRound[round];
+            if (seen >= rank) {
+                return round;
+            }
+        }
+        return sessionRounds;
+    }
+
+    public double meanDrawdown() {
+        return trajectories == 0 ? 0 : (double) drawdownSum / trajectories;
+    }
+
+    // Верхняя граница корзины, в которую попадает перцентиль
+    public int drawdownPercentile(double percentile) {
+        long rank = rank(percentile);
+        long seen = 0;
+        for (int i = 0; i < DRAWDOWN_BUCKETS; i++) {
+            seen += drawdowns[i];
+            if (seen >= rank) {
+                return (i + 1) * DRAWDOWN_STEP;
+            }
+        }
+        return DRAWDOWN_BUCKETS * DRAWDOWN_STEP;
+    }
+
+    public double meanSurvivorBalance() {
+        long survivors = trajectories - ruined;
+        return survivors == 0 ? 0 : (double) survivorBalanceSum / survivors;
+    }
+
+    // Средний итог сессии с учетом разорившихся (у них 0)
+    public double meanFinalBalance() {
+        return trajectories == 0 ? 0 : (double) survivorBalanceSum / trajectories;
+    }
+
+    private long rank(double percentile) {
+        return Math.max(1, (long) Math.ceil(percentile / 100.0 * trajectories));
+    }
+}
@@ -0,0 +1,191 @@
+package blackjack.sim;
+
+import blackjack.RoundEngine;
+import blackjack.RuleSet;
+import blackjack.Shoe;
+import blackjack.ShuffleSource;
+import blackjack.Strategy;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+// Риск разорения: много независимых траекторий баланса, каждая начинается с 1000 фишек,
+// как за столом, и играет сессию до разорения (баланс 0) или до конца сессии.
+// Траектории делятся на куски по CHUNK; внутри куска состояние хранится столбцами
+// (balance[], peak[], ...), раунды идут по всем живым траекториям сразу, а память
+// куска помещается в кэш независимо от общего числа траекторий. Кусок играет на
+// собственном шузе, поэтому ставка по счету видит настоящий счет шуза.
+public final class BankrollSimulator {
+    public static final int START_BALANCE = 1000;
+    // Фишки стола: их же показывает окно ставки (BetSelector)
+    private static final int[] CHIPS = {10, 50, 100, 500};
+
+    public static final int SYSTEM_FLAT = 0;
+    public static final int SYSTEM_MARTINGALE = 1;
+    public static final int SYSTEM_COUNT = 2;
+    private static final String[] SYSTEM_NAMES = {"flat", "martingale", "count"};
+
+    static final int CHUNK = 1 << 14;
+    // Ставка по счету: фишка, умноженная на (истинный счет - 1), от 1 до MAX_SPREAD
+    static final int MAX_SPREAD = 8;
+    // Мартингейл удваивает ставку после проигрыша; ставка все равно не больше баланса,
+    // предел нужен только чтобы длинная серия не переполнила int
+    private static final int MAX_MARTINGALE = 1 << 24;
+
+    private final Strategy strategy;
+    private final RuleSet rules;
+    private final RuleSet noDoubleRules;
+    private final int decks;
+    private final double penetration;
+    private final int parallelism;
+    private final int chip;
+    private final int system;
+    private final int sessionRounds;
+
+    // За столом одна рука, удвоение — только если на балансе есть еще одна ставка
+    public BankrollSimulator(Strategy strategy, RuleSet rules, int decks, double penetration, int parallelism,
+                             int chip, int system, int sessionRounds) {
+        if (chip <= 0 || chip > START_BALANCE) {
+            throw new IllegalArgumentException("Фишка должна быть от 1 до " + START_BALANCE + ": " + chip);
+        }
+        if (system < SYSTEM_FLAT || system > SYSTEM_COUNT) {
+            throw new IllegalArgumentException("Неизвестная система ставок: " + system);
+        }
+        this.strategy = strategy;
+        this.rules = rules.withMaxHands(1);
+        this.noDoubleRules = this.rules.withDouble(RuleSet.DOUBLE_NONE);
+        this.decks = decks;
+        this.penetration = penetration;
+        this.parallelism = parallelism;
+        this.chip = chip;
+        this.system = system;
+        this.sessionRounds = sessionRounds;
+    }
+
+    // Копия: массив общий для стола и симулятора
+    public static int[] chips() {
+        return CHIPS.clone();
+    }
+
+    public static String systemName(int system) {
+        return SYSTEM_NAMES[system];
+    }
+
+    public static int systemByName(String name) {
+        for (int system = 0; system < SYSTEM_NAMES.length; system++) {
+            if (SYSTEM_NAMES[system].equals(name)) {
+                return system;
+            }
+        }
+        throw new IllegalArgumentException("Неизвестная система ставок: " + name + ", доступны "
+                + String.join(", ", SYSTEM_NAMES));
+    }
+
+    public BankrollResult run(long trajectories, long seed) {
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            return pool.invoke(new BankrollTask(this, trajectories, new SplittableRandom(seed)));
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    BankrollResult simulate(int count, SplittableRandom random) {
+        BankrollResult result = new BankrollResult(sessionRounds);
+        Shoe shoe = new Shoe(decks, penetration, ShuffleSource.from(random));
+        // Оба движка играют одним шузом, второй — когда на удвоение не хватает фишек
+        RoundEngine engine = new RoundEngine(shoe, rules);
+        RoundEngine noDouble = new RoundEngine(shoe, noDoubleRules);
+        int[] balance = new int[count];
+        int[] peak = new int[count];
+        int[] drawdown = new int[count];
+        int[] nextBet = new int[count];
+        // Индексы живых траекторий: разорившиеся вычеркиваются перестановкой с последней
+        int[] active = new int[count];
+        Arrays.fill(balance, START_BALANCE);
+        Arrays.fill(peak, START_BALANCE);
+        Arrays.fill(nextBet, chip);
+        for (int i = 0; i < count; i++) {
+            active[i] = i;
+        }
+        int live = count;
+        for (int round = 1; round <= sessionRounds && live > 0; round++) {
+            int j = 0;
+            while (j < live) {
+                int i = active[j];
+                // startRound перемешивает шуз, если вышла подрезная карта, — до выбора ставки
+                engine.startRound();
+                int bet = Math.min(bet(nextBet[i], shoe), balance[i]);
+                RoundEngine table = engine;
+                if (balance[i] - bet < bet) {
+                    table = noDouble;
+                    table.startRound();
+                }
+                table.playHand(strategy);
+                int net = table.settle(bet) - table.wagered(bet);
+                int value = balance[i] + net;
+                balance[i] = value;
+                if (value > peak[i]) {
+                    peak[i] = value;
+                } else if (peak[i] - value > drawdown[i]) {
+                    drawdown[i] = peak[i] - value;
+                }
+                if (net < 0) {
+                    nextBet[i] = Math.min(nextBet[i] * 2, MAX_MARTINGALE);
+                } else if (net > 0) {
+                    nextBet[i] = chip;
+                }
+                if (value <= 0) {
+                    result.recordRuin(round, drawdown[i]);
+                    active[j] = active[--live];
+                } else {
+                    j++;
+                }
+            }
+        }
+        for (int j = 0; j < live; j++) {
+            int i = active[j];
+            result.recordSurvivor(balance[i], drawdown[i]);
+        }
+        return result;
+    }
+
+    private int bet(int martingaleBet, Shoe shoe) {
+        switch (system) {
+            case SYSTEM_MARTINGALE:
+                return martingaleBet;
+            case SYSTEM_COUNT:
+                int units = (int) Math.floor(shoe.trueCount()) - 1;
+                return chip * Math.max(1, Math.min(MAX_SPREAD, units));
+            default:
+                return chip;
+        }
+    }
+
+    private static final class BankrollTask extends RecursiveTask<BankrollResult> {
+        private final BankrollSimulator simulator;
+        private final long trajectories;
+        private final SplittableRandom random;
+
+        BankrollTask(BankrollSimulator simulator, long trajectories, SplittableRandom random) {
+            this.simulator = simulator;
+            this.trajectories = trajectories;
+            this.random = random;
+        }
+
+        @Override
+        protected BankrollResult compute() {
+            if (trajectories <= CHUNK) {
+                return simulator.simulate((int) trajectories, random);
+            }
+            long half = trajectories / 2;
+            BankrollTask left = new BankrollTask(simulator, half, random.split());
+            BankrollTask right = new BankrollTask(simulator, trajectories - half, random);
+            left.fork();
+            BankrollResult result = right.compute();
+            return result.merge(left.join());
+        }
+    }
+}
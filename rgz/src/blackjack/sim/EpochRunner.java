@@ -0,0 +1,41 @@
+package blackjack.sim;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+// Прогон до заданной точности: раунды идут эпохами по LEAF_ROUNDS на поток, после
+// каждой эпохи частичные результаты сливаются и проверяется полуширина интервала.
+// Остановка зависит только от данных, поэтому при тех же seed и числе потоков
+// результат повторяется.
+final class EpochRunner {
+    // Кусок раундов с собственным потоком случайных чисел
+    interface Batch<R> {
+        RecursiveTask<R> task(long rounds, SplittableRandom random);
+    }
+
+    private EpochRunner() {
+    }
+
+    static <R extends Partial<R>> R run(int parallelism, long maxRounds, double targetHalfWidth, long seed,
+                                        Batch<R> batch, SimulationProgress progress) {
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        SplittableRandom random = new SplittableRandom(seed);
+        long epochRounds = MonteCarloSimulator.LEAF_ROUNDS * parallelism;
+        long start = System.nanoTime();
+        try {
+            R total = null;
+            long played = 0;
+            do {
+                long rounds = Math.min(epochRounds, maxRounds - played);
+                R partial = pool.invoke(batch.task(rounds, random.split()));
+                total = total == null ? partial : total.merge(partial);
+                played += rounds;
+                progress.update(played, played * 1e9 / (System.nanoTime() - start), total.estimate(), total.halfWidth());
+            } while (played < maxRounds && total.halfWidth() > targetHalfWidth);
+            return total;
+        } finally {
+            pool.shutdown();
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package blackjack.sim;
+
+import blackjack.RoundEngine;
+import blackjack.RuleSet;
+import blackjack.Shoe;
+import blackjack.ShuffleSource;
+import blackjack.Strategy;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+// Делит раунды пополам, пока кусок не станет меньше LEAF_ROUNDS. Каждая половина
+// получает собственный поток SplittableRandom, общего изменяемого состояния нет.
+public final class MonteCarloSimulator {
+    static final long LEAF_ROUNDS = 1L << 20;
+    // Ставка 10: выплаты 3:2, 6:5 и сдача дают целые суммы
+    static final int BET_UNITS = 10;
+
+    private final Strategy strategy;
+    private final RuleSet rules;
+    private final int decks;
+    private final double penetration;
+    private final int parallelism;
+
+    public MonteCarloSimulator(Strategy strategy, int decks, double penetration, int parallelism) {
+        this(strategy, RuleSet.classic(), decks, penetration, parallelism);
+    }
+
+    public MonteCarloSimulator(Strategy strategy, RuleSet rules, int decks, double penetration, int parallelism) {
+        this.strategy = strategy;
+        this.rules = rules;
+        this.decks = decks;
+        this.penetration = penetration;
+        this.parallelism = parallelism;
+    }
+
+    public SimulationResult run(long rounds, long seed) {
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            return pool.invoke(new SimulationTask(this, rounds, new SplittableRandom(seed)));
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    // Играет, пока полуширина 95% интервала EV не станет не больше targetHalfWidth
+    // (на единицу ставки), но не больше maxRounds раундов; 0 — играть все maxRounds
+    public SimulationResult runUntil(double targetHalfWidth, long maxRounds, long seed, SimulationProgress progress) {
+        return EpochRunner.run(parallelism, maxRounds, targetHalfWidth, seed,
+                (rounds, random) -> new SimulationTask(this, rounds, random), progress);
+    }
+
+    SimulationResult simulate(long rounds, SplittableRandom random) {
+        SimulationResult result = new SimulationResult();
+        RoundEngine engine = new RoundEngine(new Shoe(decks, penetration, ShuffleSource.from(random)), rules);
+        Shoe shoe = engine.shoe();
+        for (long i = 0; i < rounds; i++) {
+            engine.startRound();
+            double trueCount = shoe.trueCount();
+            int outcome = engine.playHand(strategy);
+            result.record(outcome, engine.settle(BET_UNITS) - engine.wagered(BET_UNITS), trueCount);
+        }
+        return result;
+    }
+
+    private static final class SimulationTask extends RecursiveTask<SimulationResult> {
+        private final MonteCarloSimulator simulator;
+        private final long rounds;
+        private final SplittableRandom random;
+
+        SimulationTask(MonteCarloSimulator simulator, long rounds, SplittableRandom random) {
+            this.simulator = simulator;
+            this.rounds = rounds;
+            this.random = random;
+        }
+
+        @Override
+        protected SimulationResult compute() {
+            if (rounds <= LEAF_ROUNDS) {
+                return simulator.simulate(rounds, random);
+            }
+            long half = rounds / 2;
+            SimulationTask left = new SimulationTask(simulator, half, random.split());
+            SimulationTask right = new SimulationTask(simulator, rounds - half, random);
+            left.fork();
+            SimulationResult result = right.compute();
+            return result.merge(left.join());
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package blackjack.sim;
+
+// Частичный результат прогона: сливается с другими и знает достигнутую точность
+interface Partial<R> {
+    long rounds();
+
+    // Оцениваемая величина (EV) и полуширина ее 95% доверительного интервала
+    double estimate();
+
+    double halfWidth();
+
+    R merge(R other);
+}
@@ -0,0 +1,76 @@
+package blackjack.sim;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+// Потоковое среднее и дисперсия по Уэлфорду: без суммы квадратов, поэтому нет
+// потери точности при вычитании близких больших чисел. Частичные результаты
+// потоков сливаются формулой Чана, порядок слияния на результат почти не влияет.
+public final class RunningStats {
+    // 95% двусторонний интервал нормального распределения
+    public static final double Z95 = 1.96;
+
+    private long count;
+    private double mean;
+    private double m2;
+
+    public void add(double value) {
+        count++;
+        double delta = value - mean;
+        mean += delta / count;
+        m2 += delta * (value - mean);
+    }
+
+    public RunningStats merge(RunningStats other) {
+        if (other.count == 0) {
+            return this;
+        }
+        if (count == 0) {
+            count = other.count;
+            mean = other.mean;
+            m2 = other.m2;
+            return this;
+        }
+        long total = count + other.count;
+        double delta = other.mean - mean;
+        mean += delta * other.count / total;
+        m2 += other.m2 + delta * delta * ((double) count * other.count / total);
+        count = total;
+        return this;
+    }
+
+    public long count() {
+        return count;
+    }
+
+    public double mean() {
+        return mean;
+    }
+
+    public double variance() {
+        return count < 2 ? 0 : m2 / (count - 1);
+    }
+
+    public double standardError() {
+        return count == 0 ? 0 : Math.sqrt(variance() / count);
+    }
+
+    // Полуширина 95% доверительного интервала среднего; пока данных нет — бесконечность
+    public double halfWidth() {
+        return count < 2 ? Double.POSITIVE_INFINITY : Z95 * standardError();
+    }
+
+    // Состояние целиком, чтобы слияние на другой стороне дало тот же результат
+    void writeTo(DataOutput out) throws IOException {
+        out.writeLong(count);
+        out.writeDouble(mean);
+        out.writeDouble(m2);
+    }
+
+    void readFrom(DataInput in) throws IOException {
+        count = in.readLong();
+        mean = in.readDouble();
+        m2 = in.readDouble();
+    }
+}
@@ -0,0 +1,233 @@
+package blackjack.sim;
+
+import blackjack.RuleSet;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.BlockingDeque;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.TimeUnit;
+
+// Симуляция по процессам: раунды делятся на шарды с собственными seed, шарды
+// раздаются рабочим JVM, запущенным на этой машине и подключенным по loopback.
+// Рабочий играет шард через MonteCarloSimulator и возвращает SimulationResult.
+// Если рабочий умер, его шард возвращается в очередь и достается другому,
+// а вместо умершего запускается новый (не больше workers перезапусков).
+//
+// Seed шарда зависит только от общего seed и номера шарда, а слияние идет в
+// порядке номеров, поэтому результат не зависит ни от числа рабочих, ни от сбоев.
+public final class ShardCoordinator {
+    static final int MAGIC = 0x424A5348; // "BJSH"
+    private static final long POLL_MS = 200;
+
+    private final List<String> workerCommand;
+    private final int workers;
+    private final int threadsPerWorker;
+    private final String strategy;
+    private final RuleSet rules;
+    private final int decks;
+    private final double penetration;
+    private final PrintStream log;
+
+    private final BlockingDeque<Integer> pending = new LinkedBlockingDeque<>();
+    private final List<Process> processes = new ArrayList<>();
+    private SimulationResult[] results;
+    private long[] shardRounds;
+    private long[] shardSeeds;
+    private CountDownLatch remaining;
+    private SimulationResult progressTotal;
+    private SimulationProgress progress;
+    private long start;
+    private int restarts;
+    private volatile boolean finished;
+    private ServerSocket server;
+
+    // workerCommand — команда запуска рабочего без адреса; к ней добавляются хост и порт.
+    // strategy передается рабочим по имени, сами они разбирают его так же, как Main
+    public ShardCoordinator(List<String> workerCommand, int workers, int threadsPerWorker, String strategy,
+                            RuleSet rules, int decks, double penetration, PrintStream log) {
+        this.workerCommand = List.copyOf(workerCommand);
+        this.workers = workers;
+        this.threadsPerWorker = threadsPerWorker;
+        this.strategy = strategy;
+        this.rules = rules;
+        this.decks = decks;
+        this.penetration = penetration;
+        this.log = log;
+    }
+
+    public SimulationResult run(long rounds, int shards, long seed, SimulationProgress progress)
+            throws IOException, InterruptedException {
+        this.progress = progress;
+        results = new SimulationResult[shards];
+        shardRounds = new long[shards];
+        shardSeeds = new long[shards];
+        SplittableRandom random = new SplittableRandom(seed);
+        for (int shard = 0; shard < shards; shard++) {
+            shardRounds[shard] = rounds / shards + (shard < rounds % shards ? 1 : 0);
+            shardSeeds[shard] = random.nextLong();
+            pending.add(shard);
+        }
+        remaining = new CountDownLatch(shards);
+        progressTotal = new SimulationResult();
+        start = System.nanoTime();
+
+        server = new ServerSocket(0, workers, InetAddress.getLoopbackAddress());
+        Thread acceptor = Thread.ofPlatform().daemon().name("shard-accept").start(this::acceptWorkers);
+        try {
+            for (int i = 0; i < workers; i++) {
+                launchWorker();
+            }
+            while (!remaining.await(POLL_MS, TimeUnit.MILLISECONDS)) {
+                if (aliveWorkers() == 0 && !canRestart()) {
+                    throw new IOException("Все рабочие процессы завершились, не готово шардов: " + remaining.getCount());
+                }
+            }
+        } finally {
+            finished = true;
+            server.close();
+            acceptor.join();
+            stopWorkers();
+        }
+
+        SimulationResult total = new SimulationResult();
+        for (SimulationResult result : results) {
+            total.merge(result);
+        }
+        return total;
+    }
+
+    private synchronized void launchWorker() throws IOException {
+        List<String> command = new ArrayList<>(workerCommand);
+        command.add(server.getInetAddress().getHostAddress());
+        command.add(String.valueOf(server.getLocalPort()));
+        Process process = new ProcessBuilder(command)
+                .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                .redirectError(ProcessBuilder.Redirect.INHERIT)
+                .start();
+        processes.add(process);
+        process.onExit().thenRun(() -> onWorkerExit(process));
+    }
+
+    // Умерший до конца работы рабочий заменяется новым, пока есть запас перезапусков
+    private void onWorkerExit(Process process) {
+        if (finished) {
+            return;
+        }
+        log.printf("%nРабочий %d завершился с кодом %d%n", process.pid(), process.exitValue());
+        synchronized (this) {
+            if (finished || !canRestart()) {
+                return;
+            }
+            restarts++;
+            try {
+                launchWorker();
+            } catch (IOException e) {
+                log.println("Не удалось запустить рабочий процесс: " + e.getMessage());
+            }
+        }
+    }
+
+    private synchronized boolean canRestart() {
+        return restarts < workers;
+    }
+
+    private synchronized int aliveWorkers() {
+        int alive = 0;
+        for (Process process : processes) {
+            if (process.isAlive()) {
+                alive++;
+            }
+        }
+        return alive;
+    }
+
+    private void acceptWorkers() {
+        try {
+            while (!finished) {
+                Socket socket = server.accept();
+                Thread.ofVirtual().name("shard-worker").start(() -> serve(socket));
+            }
+        } catch (SocketException e) {
+            // server.close() в конце прогона
+        } catch (IOException e) {
+            log.println("Ошибка приема рабочих: " + e.getMessage());
+        }
+    }
+
+    // Одно соединение — один рабочий: получает параметры прогона, затем шарды по одному
+    private void serve(Socket socket) {
+        Integer shard = null;
+        try (socket) {
+            DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+            if (in.readInt() != MAGIC) {
+                return;
+            }
+            out.writeUTF(strategy);
+            out.writeInt(rules.encode());
+            out.writeInt(decks);
+            out.writeDouble(penetration);
+            out.writeInt(threadsPerWorker);
+            out.flush();
+            while (!finished) {
+                shard = pending.poll(POLL_MS, TimeUnit.MILLISECONDS);
+                if (shard == null) {
+                    continue;
+                }
+                out.writeInt(shard);
+                out.writeLong(shardRounds[shard]);
+                out.writeLong(shardSeeds[shard]);
+                out.flush();
+                if (in.readInt() != shard) {
+                    throw new IOException("Рабочий вернул чужой шард");
+                }
+                complete(shard, SimulationResult.readFrom(in));
+                shard = null;
+            }
+        } catch (IOException e) {
+            if (shard != null) {
+                log.printf("%nШард %d переназначен: %s%n", shard,
+                        e instanceof EOFException ? "рабочий закрыл соединение" : e.getMessage());
+                pending.addFirst(shard);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private synchronized void complete(int shard, SimulationResult result) {
+        results[shard] = result;
+        progressTotal.merge(result);
+        long played = progressTotal.rounds();
+        progress.update(played, played * 1e9 / (System.nanoTime() - start),
+                progressTotal.estimate(), progressTotal.halfWidth());
+        remaining.countDown();
+    }
+
+    // Рабочие сами выходят, когда соединение закрыто; зависшие завершаются принудительно
+    private void stopWorkers() throws InterruptedException {
+        List<Process> all;
+        synchronized (this) {
+            all = new ArrayList<>(processes);
+        }
+        for (Process process : all) {
+            if (!process.waitFor(5, TimeUnit.SECONDS)) {
+                process.destroyForcibly();
+            }
+        }
+    }
+}
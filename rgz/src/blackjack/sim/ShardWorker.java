@@ -0,0 +1,49 @@
+package blackjack.sim;
+
+import blackjack.RuleSet;
+import blackjack.Strategy;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.Socket;
+import java.util.function.Function;
+
+// Рабочий процесс ShardCoordinator: подключается к координатору, получает параметры
+// прогона и играет присланные шарды, пока координатор не закроет соединение.
+public final class ShardWorker {
+    private ShardWorker() {
+    }
+
+    public static void serve(String host, int port, Function<String, Strategy> strategies) throws IOException {
+        try (Socket socket = new Socket(host, port)) {
+            DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+            out.writeInt(ShardCoordinator.MAGIC);
+            out.flush();
+            Strategy strategy = strategies.apply(in.readUTF());
+            RuleSet rules = RuleSet.decode(in.readInt());
+            int decks = in.readInt();
+            double penetration = in.readDouble();
+            int threads = in.readInt();
+            MonteCarloSimulator simulator = new MonteCarloSimulator(strategy, rules, decks, penetration, threads);
+            while (true) {
+                int shard;
+                try {
+                    shard = in.readInt();
+                } catch (EOFException e) {
+                    return;
+                }
+                long rounds = in.readLong();
+                long seed = in.readLong();
+                SimulationResult result = simulator.run(rounds, seed);
+                out.writeInt(shard);
+                result.writeTo(out);
+                out.flush();
+            }
+        }
+    }
+}
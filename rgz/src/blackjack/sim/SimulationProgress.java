@@ -0,0 +1,10 @@
+package blackjack.sim;
+
+// Ход прогона после каждой эпохи: сыграно раундов, скорость, текущая оценка и ее интервал
+@FunctionalInterface
+public interface SimulationProgress {
+    SimulationProgress NONE = (rounds, roundsPerSecond, estimate, halfWidth) -> {
+    };
+
+    void update(long rounds, double roundsPerSecond, double estimate, double halfWidth);
+}
@@ -0,0 +1,46 @@
+package blackjack.sim;
+
+import blackjack.RoundEngine;
+
+import java.io.PrintStream;
+
+public final class SimulationReport {
+    private static final String[] OUTCOME_NAMES = {
+            "Перебор игрока", "Перебор дилера", "Блэкджек", "Победа", "Поражение", "Ничья", "Сдача"
+    };
+
+    private SimulationReport() {
+    }
+
+    public static String outcomeName(int outcome) {
+        return OUTCOME_NAMES[outcome];
+    }
+
+    // Живой ход прогона одной строкой, перезаписываемой через \r; после прогона нужен перевод строки
+    public static SimulationProgress progress(PrintStream out) {
+        return (rounds, roundsPerSecond, estimate, halfWidth) -> out.printf(
+                "\r%,d раундов, %,.0f раундов/с, EV %+.5f ± %.5f   ", rounds, roundsPerSecond, estimate, halfWidth);
+    }
+
+    public static void print(PrintStream out, SimulationResult result, long elapsedNanos) {
+        double seconds = elapsedNanos / 1e9;
+        out.printf("Раундов: %,d за %.2f с (%,.0f раундов/с)%n", result.rounds(), seconds, result.rounds() / seconds);
+        out.printf("EV игрока: %+.5f ± %.5f (95%%) на единицу ставки%n",
+                result.expectedValue(), result.halfWidth());
+        out.printf("Преимущество казино: %.3f%%%n", -result.expectedValue() * 100);
+        out.printf("Дисперсия: %.5f%n", result.variance());
+        for (int outcome = 0; outcome < RoundEngine.OUTCOME_COUNT; outcome++) {
+            out.printf("  %-16s %,15d  %7.3f%%%n", OUTCOME_NAMES[outcome],
+                    result.outcomeCount(outcome), result.outcomeFrequency(outcome) * 100);
+        }
+        out.println("EV по истинному счету в начале раунда:");
+        for (int count = SimulationResult.MIN_TRUE_COUNT; count <= SimulationResult.MAX_TRUE_COUNT; count++) {
+            long rounds = result.roundsAtTrueCount(count);
+            if (rounds > 0) {
+                String label = count == SimulationResult.MIN_TRUE_COUNT ? "<=" + count
+                        : count == SimulationResult.MAX_TRUE_COUNT ? ">=+" + count : String.format("%+d", count);
+                out.printf("  %-4s %,15d  %+.5f%n", label, rounds, result.expectedValueAtTrueCount(count));
+            }
+        }
+    }
+}
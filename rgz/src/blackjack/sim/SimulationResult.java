@@ -0,0 +1,116 @@
+package blackjack.sim;
+
+import blackjack.RoundEngine;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+// Частичный результат одного потока. Выигрыш считается в десятых ставки
+// (-10, 0, 10, 15, 12 за 6:5, -5 за сдачу, вдвое больше при удвоении),
+// поэтому суммы по счету точные; среднее и дисперсия — потоковые (RunningStats).
+public final class SimulationResult implements Partial<SimulationResult> {
+    // Истинный счет в начале раунда (округленный вниз), крайние значения собирают хвосты
+    public static final int MIN_TRUE_COUNT = -5;
+    public static final int MAX_TRUE_COUNT = 5;
+    private static final int TRUE_COUNT_BUCKETS = MAX_TRUE_COUNT - MIN_TRUE_COUNT + 1;
+    private static final double UNIT = MonteCarloSimulator.BET_UNITS;
+
+    private final RunningStats net = new RunningStats();
+    private final long[] outcomes = new long[RoundEngine.OUTCOME_COUNT];
+    private final long[] roundsByCount = new long[TRUE_COUNT_BUCKETS];
+    private final long[] netByCount = new long[TRUE_COUNT_BUCKETS];
+
+    void record(int outcome, int netUnits, double trueCount) {
+        net.add(netUnits);
+        outcomes[outcome]++;
+        int bucket = Math.max(MIN_TRUE_COUNT, Math.min(MAX_TRUE_COUNT, (int) Math.floor(trueCount))) - MIN_TRUE_COUNT;
+        roundsByCount[bucket]++;
+        netByCount[bucket] += netUnits;
+    }
+
+    @Override
+    public SimulationResult merge(SimulationResult other) {
+        net.merge(other.net);
+        for (int i = 0; i < outcomes.length; i++) {
+            outcomes[i] += other.outcomes[i];
+        }
+        for (int i = 0; i < TRUE_COUNT_BUCKETS; i++) {
+            roundsByCount[i] += other.roundsByCount[i];
+            netByCount[i] += other.netByCount[i];
+        }
+        return this;
+    }
+
+    // Передача частичного результата между процессами (ShardCoordinator)
+    void writeTo(DataOutput out) throws IOException {
+        net.writeTo(out);
+        for (long count : outcomes) {
+            out.writeLong(count);
+        }
+        for (int i = 0; i < TRUE_COUNT_BUCKETS; i++) {
+            out.writeLong(roundsByCount[i]);
+            out.writeLong(netByCount[i]);
+        }
+    }
+
+    static SimulationResult readFrom(DataInput in) throws IOException {
+        SimulationResult result = new SimulationResult();
+        result.net.readFrom(in);
+        for (int i = 0; i < result.outcomes.length; i++) {
+            result.outcomes[i] = in.readLong();
+        }
+        for (int i = 0; i < TRUE_COUNT_BUCKETS; i++) {
+            result.roundsByCount[i] = in.readLong();
+            result.netByCount[i] = in.readLong();
+        }
+        return result;
+    }
+
+    @Override
+    public long rounds() {
+        return net.count();
+    }
+
+    // Матожидание выигрыша на единицу ставки
+    public double expectedValue() {
+        return net.mean() / UNIT;
+    }
+
+    public double variance() {
+        return net.variance() / (UNIT * UNIT);
+    }
+
+    public double standardError() {
+        return net.standardError() / UNIT;
+    }
+
+    @Override
+    public double estimate() {
+        return expectedValue();
+    }
+
+    // Полуширина 95% доверительного интервала EV
+    @Override
+    public double halfWidth() {
+        return net.halfWidth() / UNIT;
+    }
+
+    public long outcomeCount(int outcome) {
+        return outcomes[outcome];
+    }
+
+    public double outcomeFrequency(int outcome) {
+        long rounds = net.count();
+        return rounds == 0 ? 0 : (double) outcomes[outcome] / rounds;
+    }
+
+    public long roundsAtTrueCount(int trueCount) {
+        return roundsByCount[trueCount - MIN_TRUE_COUNT];
+    }
+
+    public double expectedValueAtTrueCount(int trueCount) {
+        long count = roundsByCount[trueCount - MIN_TRUE_COUNT];
+        return count == 0 ? 0 : netByCount[trueCount - MIN_TRUE_COUNT] / UNIT / count;
+    }
+}
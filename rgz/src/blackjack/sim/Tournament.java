@@ -0,0 +1,103 @@
+package blackjack.sim;
+
+import blackjack.RoundEngine;
+import blackjack.RuleSet;
+import blackjack.Shoe;
+import blackjack.ShuffleSource;
+import blackjack.Strategy;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+// Турнир стратегий на общих случайных числах: в каждом раунде все стратегии
+// начинают с одного и того же состояния шуза (seed перемешивания и позиция),
+// которое задает первая стратегия. Разности EV считаются по парам раундов,
+// поэтому их дисперсия намного меньше, чем при независимых симуляциях.
+// Распараллеливание — как в MonteCarloSimulator.
+public final class Tournament {
+    private final Strategy[] strategies;
+    private final RuleSet rules;
+    private final int decks;
+    private final double penetration;
+    private final int parallelism;
+
+    public Tournament(Strategy[] strategies, RuleSet rules, int decks, double penetration, int parallelism) {
+        if (strategies.length == 0) {
+            throw new IllegalArgumentException("Нужна хотя бы одна стратегия");
+        }
+        this.strategies = strategies.clone();
+        this.rules = rules;
+        this.decks = decks;
+        this.penetration = penetration;
+        this.parallelism = parallelism;
+    }
+
+    public TournamentResult run(long rounds, long seed) {
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            return pool.invoke(new TournamentTask(this, rounds, new SplittableRandom(seed)));
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    // Играет, пока интервалы разностей EV со всеми стратегиями (или EV единственной)
+    // не станут не шире targetHalfWidth, но не больше maxRounds раундов
+    public TournamentResult runUntil(double targetHalfWidth, long maxRounds, long seed, SimulationProgress progress) {
+        return EpochRunner.run(parallelism, maxRounds, targetHalfWidth, seed,
+                (rounds, random) -> new TournamentTask(this, rounds, random), progress);
+    }
+
+    TournamentResult play(long rounds, SplittableRandom random) {
+        int count = strategies.length;
+        TournamentResult result = new TournamentResult(count);
+        RoundEngine[] engines = new RoundEngine[count];
+        engines[0] = new RoundEngine(new Shoe(decks, penetration, ShuffleSource.from(random)), rules);
+        for (int k = 1; k < count; k++) {
+            // Собственный источник нужен только если шуз кончится посреди раунда
+            engines[k] = new RoundEngine(new Shoe(decks, penetration, ShuffleSource.from(random.split())), rules);
+        }
+        Shoe lead = engines[0].shoe();
+        int[] net = new int[count];
+        for (long i = 0; i < rounds; i++) {
+            engines[0].startRound();
+            long shuffleSeed = lead.shuffleSeed();
+            int position = lead.position();
+            for (int k = 0; k < count; k++) {
+                if (k > 0) {
+                    engines[k].startRoundAt(shuffleSeed, position);
+                }
+                engines[k].playHand(strategies[k]);
+                net[k] = engines[k].settle(MonteCarloSimulator.BET_UNITS) - engines[k].wagered(MonteCarloSimulator.BET_UNITS);
+            }
+            result.record(net);
+        }
+        return result;
+    }
+
+    private static final class TournamentTask extends RecursiveTask<TournamentResult> {
+        private final Tournament tournament;
+        private final long rounds;
+        private final SplittableRandom random;
+
+        TournamentTask(Tournament tournament, long rounds, SplittableRandom random) {
+            this.tournament = tournament;
+            this.rounds = rounds;
+            this.random = random;
+        }
+
+        @Override
+        protected TournamentResult compute() {
+            if (rounds <= MonteCarloSimulator.LEAF_ROUNDS) {
+                return tournament.play(rounds, random);
+            }
+            long half = rounds / 2;
+            TournamentTask left = new TournamentTask(tournament, half, random.split());
+            TournamentTask right = new TournamentTask(tournament, rounds - half, random);
+            left.fork();
+            TournamentResult result = right.compute();
+            return result.merge(left.join());
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package blackjack.sim;
+
+import java.io.PrintStream;
+
+public final class TournamentReport {
+    private TournamentReport() {
+    }
+
+    public static void print(PrintStream out, String[] names, TournamentResult result, long elapsedNanos) {
+        double seconds = elapsedNanos / 1e9;
+        out.printf("Раундов: %,d за %.2f с (%,.0f раундов/с на стратегию)%n",
+                result.rounds(), seconds, result.rounds() / seconds);
+        out.printf("  %-14s %22s %28s %12s%n", "Стратегия", "EV (95%)", "Разница с " + names[0] + " (95%)", "Выигрыш CRN");
+        for (int k = 0; k < result.strategies(); k++) {
+            String ev = String.format("%+.5f ± %.5f", result.expectedValue(k), RunningStats.Z95 * result.standardError(k));
+            if (k == 0) {
+                out.printf("  %-14s %22s %28s %12s%n", names[k], ev, "—", "—");
+            } else {
+                String difference = String.format("%+.5f ± %.5f", result.difference(k), RunningStats.Z95 * result.differenceError(k));
+                out.printf("  %-14s %22s %28s %11.1fx%n", names[k], ev, difference, result.varianceReduction(k));
+            }
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package blackjack.sim;
+
+// Частичный результат турнира. Для каждой стратегии — потоковая статистика выигрыша
+// в десятых ставки, а также попарных разностей с базовой (первой) стратегией на
+// одних и тех же раундах: по ним считается доверительный интервал разницы EV.
+public final class TournamentResult implements Partial<TournamentResult> {
+    private static final double UNIT = MonteCarloSimulator.BET_UNITS;
+
+    private final int strategies;
+    private final RunningStats[] net;
+    private final RunningStats[] difference;
+
+    TournamentResult(int strategies) {
+        this.strategies = strategies;
+        this.net = new RunningStats[strategies];
+        this.difference = new RunningStats[strategies];
+        for (int k = 0; k < strategies; k++) {
+            net[k] = new RunningStats();
+            difference[k] = new RunningStats();
+        }
+    }
+
+    // netUnits[k] — выигрыш стратегии k в одном и том же раунде
+    void record(int[] netUnits) {
+        int baseline = netUnits[0];
+        for (int k = 0; k < strategies; k++) {
+            int value = netUnits[k];
+            net[k].add(value);
+            difference[k].add(value - baseline);
+        }
+    }
+
+    @Override
+    public TournamentResult merge(TournamentResult other) {
+        for (int k = 0; k < strategies; k++) {
+            net[k].merge(other.net[k]);
+            difference[k].merge(other.difference[k]);
+        }
+        return this;
+    }
+
+    public int strategies() {
+        return strategies;
+    }
+
+    @Override
+    public long rounds() {
+        return net[0].count();
+    }
+
+    public double expectedValue(int strategy) {
+        return net[strategy].mean() / UNIT;
+    }
+
+    public double standardError(int strategy) {
+        return net[strategy].standardError() / UNIT;
+    }
+
+    // EV стратегии минус EV базовой
+    public double difference(int strategy) {
+        return difference[strategy].mean() / UNIT;
+    }
+
+    public double differenceError(int strategy) {
+        return difference[strategy].standardError() / UNIT;
+    }
+
+    // Во сколько раз меньше раундов нужно для той же точности разницы,
+    // чем при независимых шузах для каждой стратегии
+    public double varianceReduction(int strategy) {
+        double paired = difference[strategy].variance();
+        double independent = net[strategy].variance() + net[0].variance();
+        return paired == 0 ? Double.POSITIVE_INFINITY : independent / paired;
+    }
+
+    @Override
+    public double estimate() {
+        return expectedValue(0);
+    }
+
+    // Самый широкий из интервалов разностей с базовой; для одной стратегии — интервал ее EV
+    @Override
+    public double halfWidth() {
+        if (strategies == 1) {
+            return net[0].halfWidth() / UNIT;
+        }
+        double widest = 0;
+        for (int k = 1; k < strategies; k++) {
+            widest = Math.max(widest, difference[k].halfWidth() / UNIT);
+        }
+        return widest;
+    }
+}